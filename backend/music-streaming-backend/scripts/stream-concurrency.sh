@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+#
+# Opens many slow, concurrent audio downloads and reports how long each
+# listener waited for its first byte.
+#
+# Platform threads: every download holds a Tomcat worker until it finishes,
+# so listeners beyond server.tomcat.threads.max queue up. Virtual threads:
+# all of them start streaming right away.
+#
+#   # platform threads, small pool to make the cap visible
+#   SERVER_TOMCAT_THREADS_MAX=50 ./mvnw spring-boot:run
+#   # virtual threads
+#   VIRTUAL_THREADS_ENABLED=true ./mvnw spring-boot:run
+#
+#   TOKEN=<jwt> SONG_ID=<uuid> scripts/stream-concurrency.sh
+#
+# Knobs: BASE_URL, LISTENERS (default 200), RATE per listener (default 32k),
+# MAX_TIME per download in seconds (default 30).
+
+set -euo pipefail
+
+BASE_URL=${BASE_URL:-http://localhost:8081}
+LISTENERS=${LISTENERS:-200}
+RATE=${RATE:-32k}
+MAX_TIME=${MAX_TIME:-30}
+
+: "${TOKEN:?TOKEN (a JWT) is required}"
+: "${SONG_ID:?SONG_ID is required}"
+
+results=$(mktemp)
+trap 'rm -f "$results"' EXIT
+
+for _ in $(seq "$LISTENERS"); do
+  # A throttled reader keeps its request (and, without virtual threads,
+  # its worker) busy for the whole download
+  curl -s -o /dev/null --limit-rate "$RATE" --max-time "$MAX_TIME" \
+       -H "Authorization: Bearer $TOKEN" \
+       -w '%{time_starttransfer} %{http_code}\n' \
+       "$BASE_URL/api/stream/songs/$SONG_ID" >> "$results" || true &
+done
+wait
+
+sort -n "$results" | awk -v listeners="$LISTENERS" '
+  { ttfb[NR] = $1; if ($2 == 200 || $2 == 206) ok++; if ($1 > 0 && $1 < 1) fast++ }
+  function pct(p,   i) { i = int(NR * p); if (i < NR * p) i++; return ttfb[i < 1 ? 1 : i] }
+  END {
+    printf "listeners:            %d\n", listeners
+    printf "successful responses: %d\n", ok
+    printf "first byte < 1s:      %d\n", fast
+    printf "ttfb p50:             %.3fs\n", pct(0.50)
+    printf "ttfb p99:             %.3fs\n", pct(0.99)
+  }'
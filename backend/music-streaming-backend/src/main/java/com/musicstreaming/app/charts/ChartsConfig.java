@@ -0,0 +1,9 @@
+package com.musicstreaming.app.charts;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ChartsProperties.class)
+public class ChartsConfig {
+}
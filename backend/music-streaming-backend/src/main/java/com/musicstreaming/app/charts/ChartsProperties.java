@@ -0,0 +1,14 @@
+package com.musicstreaming.app.charts;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "charts")
+public record ChartsProperties(
+        Path snapshotPath,
+        Duration snapshotInterval,
+        Duration replayGap,
+        Duration resultTtl
+) {}
@@ -0,0 +1,297 @@
+package com.musicstreaming.app.charts;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.musicstreaming.app.dto.TrendingSong;
+import com.musicstreaming.app.streaming.SongMetadata;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "Trending now" charts from in-memory sliding windows.
+ *
+ * Every played song gets two rings of counters: 60 one-minute buckets and
+ * 168 one-hour buckets, each stamped with the period it holds so stale
+ * slots reset lazily. A query sums the buckets of the window per song and
+ * keeps the top K in a heap – its cost depends on the number of songs
+ * played recently, not on the number of plays. Counters are snapshotted to
+ * disk and reloaded on start.
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingService.class);
+
+    static final Duration MIN_WINDOW = Duration.ofMinutes(1);
+    static final Duration MAX_WINDOW = Duration.ofDays(7);
+
+    private static final int MINUTES = 60;
+    private static final int HOURS = 168;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final ChartsProperties props;
+    private final Map<UUID, SongCounter> counters = new ConcurrentHashMap<>();
+
+    // (user, song) pairs counted recently – re-requests of the start of a
+    // track during the same listen are not new plays
+    private final Cache<String, Boolean> recentPlays;
+    private final Cache<String, List<TrendingSong>> results;
+
+    public TrendingService(ChartsProperties props) {
+        this.props = props;
+        this.recentPlays = Caffeine.newBuilder()
+                .expireAfterWrite(props.replayGap())
+                .maximumSize(1_000_000)
+                .build();
+        this.results = Caffeine.newBuilder()
+                .expireAfterWrite(props.resultTtl())
+                .maximumSize(1_000)
+                .build();
+    }
+
+    /**
+     * Counts a play of {@code song} by {@code userId}, at most once per
+     * replay gap.
+     */
+    public void recordPlay(UUID userId, SongMetadata song) {
+        if (recentPlays.asMap().putIfAbsent(userId + ":" + song.id(), Boolean.TRUE) != null) {
+            return;
+        }
+        counters.computeIfAbsent(song.id(), id -> new SongCounter(song.title(), song.artist(), song.genre()))
+                .increment(currentMinute());
+    }
+
+    public void remove(UUID songId) {
+        counters.remove(songId);
+        results.invalidateAll();
+    }
+
+    /**
+     * Most played songs over the last {@code window} (1 minute to 7 days), with
+     * optional case-insensitive genre / artist filters.
+     */
+    public List<TrendingSong> top(Duration window, String genre, String artist, int limit) {
+        if (window.compareTo(MIN_WINDOW) < 0 || window.compareTo(MAX_WINDOW) > 0) {
+            throw new IllegalArgumentException("window must be between 1m and 7d");
+        }
+        String key = window + "|" + normalize(genre) + "|" + normalize(artist) + "|" + limit;
+        return results.get(key, k -> compute(window, genre, artist, limit));
+    }
+
+    private List<TrendingSong> compute(Duration window, String genre, String artist, int limit) {
+        long minute = currentMinute();
+        boolean byMinute = window.toMinutes() <= MINUTES;
+        int buckets = byMinute
+                ? (int) Math.max(1, window.toMinutes())
+                : (int) Math.ceil(window.toMinutes() / 60.0);
+
+        PriorityQueue<TrendingSong> heap = new PriorityQueue<>(
+                limit + 1,
+                Comparator.comparingLong(TrendingSong::plays).thenComparing(TrendingSong::id)
+        );
+
+        for (Map.Entry<UUID, SongCounter> entry : counters.entrySet()) {
+            SongCounter counter = entry.getValue();
+            if ((genre != null && !genre.equalsIgnoreCase(counter.genre))
+                    || (artist != null && !artist.equalsIgnoreCase(counter.artist))) {
+                continue;
+            }
+
+            long plays = byMinute ? counter.sumMinutes(minute, buckets) : counter.sumHours(minute / 60, buckets);
+            if (plays == 0) {
+                continue;
+            }
+
+            heap.offer(new TrendingSong(entry.getKey(), counter.title, counter.artist, counter.genre, plays));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+
+        TrendingSong[] top = new TrendingSong[heap.size()];
+        for (int i = top.length - 1; i >= 0; i--) {
+            top[i] = heap.poll();
+        }
+        return List.of(top);
+    }
+
+    // ================= SNAPSHOTS =================
+
+    @PostConstruct
+    void restore() {
+        Path file = props.snapshotPath();
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignoring trending snapshot {} with unknown version", file);
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID id = new UUID(in.readLong(), in.readLong());
+                counters.put(id, SongCounter.read(in));
+            }
+            log.info("Restored trending counters for {} songs", count);
+        } catch (IOException ex) {
+            log.warn("Could not restore trending snapshot {}", file, ex);
+        }
+    }
+
+    /**
+     * Drops songs without plays in the last 7 days and writes the rest to
+     * disk (temp file + atomic rename).
+     */
+    @Scheduled(fixedDelayString = "${charts.snapshot-interval}", initialDelayString = "${charts.snapshot-interval}")
+    @PreDestroy
+    public void snapshot() {
+        long minute = currentMinute();
+        counters.values().removeIf(counter -> counter.sumHours(minute / 60, HOURS) == 0);
+
+        Path file = props.snapshotPath();
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "trending-", ".part");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    List<Map.Entry<UUID, SongCounter>> entries = new ArrayList<>(counters.entrySet());
+                    out.writeInt(SNAPSHOT_VERSION);
+                    out.writeInt(entries.size());
+                    for (Map.Entry<UUID, SongCounter> entry : entries) {
+                        out.writeLong(entry.getKey().getMostSignificantBits());
+                        out.writeLong(entry.getKey().getLeastSignificantBits());
+                        entry.getValue().copy().write(out);
+                    }
+                }
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ex) {
+            log.warn("Could not write trending snapshot {}", file, ex);
+        }
+    }
+
+    private static long currentMinute() {
+        return System.currentTimeMillis() / 60_000;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Minute and hour rings for one song. Slots carry the minute / hour they
+     * count; a slot holding an older period is treated as zero.
+     */
+    static final class SongCounter {
+
+        private final String title;
+        private final String artist;
+        private final String genre;
+
+        private final int[] minuteCounts = new int[MINUTES];
+        private final long[] minuteStamps = new long[MINUTES];
+        private final int[] hourCounts = new int[HOURS];
+        private final long[] hourStamps = new long[HOURS];
+
+        SongCounter(String title, String artist, String genre) {
+            this.title = title;
+            this.artist = artist;
+            this.genre = genre;
+            Arrays.fill(minuteStamps, -1);
+            Arrays.fill(hourStamps, -1);
+        }
+
+        synchronized void increment(long minute) {
+            int m = (int) (minute % MINUTES);
+            if (minuteStamps[m] != minute) {
+                minuteStamps[m] = minute;
+                minuteCounts[m] = 0;
+            }
+            minuteCounts[m]++;
+
+            long hour = minute / 60;
+            int h = (int) (hour % HOURS);
+            if (hourStamps[h] != hour) {
+                hourStamps[h] = hour;
+                hourCounts[h] = 0;
+            }
+            hourCounts[h]++;
+        }
+
+        /** Plays in the current minute and the {@code buckets - 1} before it. */
+        synchronized long sumMinutes(long minute, int buckets) {
+            return sum(minuteCounts, minuteStamps, minute, buckets);
+        }
+
+        synchronized long sumHours(long hour, int buckets) {
+            return sum(hourCounts, hourStamps, hour, buckets);
+        }
+
+        private static long sum(int[] counts, long[] stamps, long now, int buckets) {
+            long total = 0;
+            for (long period = now - buckets + 1; period <= now; period++) {
+                int slot = (int) Math.floorMod(period, (long) counts.length);
+                if (stamps[slot] == period) {
+                    total += counts[slot];
+                }
+            }
+            return total;
+        }
+
+        /** Consistent copy, so the snapshot file is written without holding the lock. */
+        synchronized SongCounter copy() {
+            SongCounter copy = new SongCounter(title, artist, genre);
+            System.arraycopy(minuteCounts, 0, copy.minuteCounts, 0, MINUTES);
+            System.arraycopy(minuteStamps, 0, copy.minuteStamps, 0, MINUTES);
+            System.arraycopy(hourCounts, 0, copy.hourCounts, 0, HOURS);
+            System.arraycopy(hourStamps, 0, copy.hourStamps, 0, HOURS);
+            return copy;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeUTF(Objects.toString(title, ""));
+            out.writeUTF(Objects.toString(artist, ""));
+            out.writeUTF(Objects.toString(genre, ""));
+            for (int i = 0; i < MINUTES; i++) {
+                out.writeLong(minuteStamps[i]);
+                out.writeInt(minuteCounts[i]);
+            }
+            for (int i = 0; i < HOURS; i++) {
+                out.writeLong(hourStamps[i]);
+                out.writeInt(hourCounts[i]);
+            }
+        }
+
+        static SongCounter read(DataInputStream in) throws IOException {
+            SongCounter counter = new SongCounter(in.readUTF(), in.readUTF(), emptyToNull(in.readUTF()));
+            for (int i = 0; i < MINUTES; i++) {
+                counter.minuteStamps[i] = in.readLong();
+                counter.minuteCounts[i] = in.readInt();
+            }
+            for (int i = 0; i < HOURS; i++) {
+                counter.hourStamps[i] = in.readLong();
+                counter.hourCounts[i] = in.readInt();
+            }
+            return counter;
+        }
+
+        private static String emptyToNull(String value) {
+            return value.isEmpty() ? null : value;
+        }
+    }
+}
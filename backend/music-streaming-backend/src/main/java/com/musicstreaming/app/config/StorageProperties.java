@@ -0,0 +1,18 @@
+package com.musicstreaming.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * @param root    folder holding audio, covers and their derived files;
+ *                relative paths under it are what {@code Song} rows store
+ * @param gcGrace blobs written more recently than this are never collected,
+ *                so an in-flight upload of the same content keeps its file
+ */
+@ConfigurationProperties(prefix = "storage")
+public record StorageProperties(
+        Path root,
+        Duration gcGrace
+) {}
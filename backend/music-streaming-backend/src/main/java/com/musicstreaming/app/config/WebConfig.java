@@ -1,15 +1,53 @@
 package com.musicstreaming.app.config;
 
+import com.musicstreaming.app.service.FileStorageService;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    // Stored names are content hashes (or random UUIDs), so they never change
+    private static final CacheControl IMMUTABLE =
+            CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final StorageProperties storage;
+
+    public WebConfig(StorageProperties storage) {
+        this.storage = storage;
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/storage/**")
-                .addResourceLocations("file:storage/");
+        // Only finished uploads – temp files and HLS renditions stay private
+        Path root = storage.root().toAbsolutePath().normalize();
+        for (String folder : new String[] {"audio", "covers"}) {
+            registry.addResourceHandler("/storage/" + folder + "/**")
+                    .addResourceLocations(location(root.resolve(folder)))
+                    .setCacheControl(IMMUTABLE)
+                    .setEtagGenerator(WebConfig::etag);
+        }
+    }
+
+    // Locations must end in "/"; toUri() adds it only for existing folders
+    private static String location(Path folder) {
+        String uri = folder.toUri().toString();
+        return uri.endsWith("/") ? uri : uri + "/";
+    }
+
+    private static String etag(Resource resource) {
+        try {
+            return FileStorageService.etag(resource.getFilename(), resource.contentLength(), resource.lastModified());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
     }
 }
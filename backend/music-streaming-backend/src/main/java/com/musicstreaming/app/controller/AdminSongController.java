@@ -44,6 +44,11 @@ public class AdminSongController {
         ));
     }
 
+    @PostMapping("/{id}/deactivate")
+    public void deactivateSong(@PathVariable UUID id) {
+        adminSongService.deactivateSong(id);
+    }
+
     @DeleteMapping("/{id}")
     public void deleteSong(@PathVariable UUID id) {
         adminSongService.deleteSong(id);
@@ -1,33 +1,90 @@
 package com.musicstreaming.app.controller;
 
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.FileSystemResource;
+import com.musicstreaming.app.covers.CoverVariantService;
+import com.musicstreaming.app.service.FileStorageService;
+import com.musicstreaming.app.streaming.AudioRangeWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.Duration;
 
 @RestController
 @RequestMapping("/media")
 public class MediaController {
 
+    // Stored file names never get new content: blobs are named after their
+    // hash, legacy files after a random UUID
+    private static final CacheControl IMMUTABLE =
+            CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final FileStorageService fileStorageService;
+    private final AudioRangeWriter audioRangeWriter;
+    private final CoverVariantService coverVariantService;
+
+    public MediaController(
+            FileStorageService fileStorageService,
+            AudioRangeWriter audioRangeWriter,
+            CoverVariantService coverVariantService
+    ) {
+        this.fileStorageService = fileStorageService;
+        this.audioRangeWriter = audioRangeWriter;
+        this.coverVariantService = coverVariantService;
+    }
+
     @GetMapping(value = "/audio/{filename}", produces = "audio/mpeg")
-    public ResponseEntity<Resource> streamAudio(@PathVariable String filename) {
+    public void streamAudio(
+            @PathVariable String filename,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+
+        Path filePath = fileStorageService.resolveAudio(filename);
+
+        if (filePath == null || !Files.isReadable(filePath)) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"");
+        audioRangeWriter.write(filePath, MediaType.parseMediaType("audio/mpeg"), IMMUTABLE, request, response);
+    }
 
-        Path filePath = Paths.get("storage", "audio").resolve(filename).normalize();
-        Resource resource = new FileSystemResource(filePath);
+    /**
+     * Cover art resized to the smallest variant covering {@code size} px,
+     * as JPEG or PNG depending on {@code Accept}.
+     */
+    @GetMapping("/covers/{filename}")
+    public void cover(
+            @PathVariable String filename,
+            @RequestParam(required = false) Integer size,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
 
-        if (!resource.exists() || !resource.isReadable()) {
-            return ResponseEntity.notFound().build();
+        Path original = fileStorageService.resolveCover(filename);
+
+        if (original == null || !Files.isReadable(original)) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType("audio/mpeg"))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"")
-                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
-                .body(resource);
+        MediaType format = CoverVariantService.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        Path variant = coverVariantService.variant(original, size, format);
+
+        // Undecodable originals are served as uploaded
+        MediaType contentType = variant.equals(original)
+                ? MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM)
+                : format;
+
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        audioRangeWriter.writeFile(variant, contentType, IMMUTABLE, request, response);
     }
 }
@@ -1,10 +1,15 @@
 package com.musicstreaming.app.controller;
 
+import com.musicstreaming.app.dto.PlaylistBatchRequest;
+import com.musicstreaming.app.dto.PlaylistBatchResult;
+import com.musicstreaming.app.dto.PlaylistPage;
 import com.musicstreaming.app.dto.PlaylistResponse;
+import com.musicstreaming.app.dto.PlaylistSongPage;
 import com.musicstreaming.app.mapper.PlaylistMapper;
 import com.musicstreaming.app.model.User;
 import com.musicstreaming.app.service.PlaylistService;
 import com.musicstreaming.app.service.UserService;
+import jakarta.validation.Valid;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
@@ -39,20 +44,62 @@ public class PlaylistController {
         );
     }
 
+    // Reads only need the id from the token, not the User row
+    private UUID currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return UUID.fromString(auth.getName());
+    }
+
     @GetMapping
-    public List<PlaylistResponse> myPlaylists() {
-        return playlistService.getUserPlaylists(currentUser())
-                .stream()
-                .map(PlaylistMapper::toResponse)
-                .toList();
+    public PlaylistPage myPlaylists(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "50") int songLimit
+    ) {
+        return playlistService.getPlaylistPage(currentUserId(), cursor, limit, songLimit);
+    }
+
+    @GetMapping("/{playlistId}/songs")
+    public PlaylistSongPage playlistSongs(
+            @PathVariable UUID playlistId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return playlistService.getPlaylistSongs(playlistId, currentUserId(), cursor, limit);
     }
 
     @PostMapping("/{playlistId}/songs/{songId}")
     public void addSong(
             @PathVariable UUID playlistId,
-            @PathVariable UUID songId
+            @PathVariable UUID songId,
+            @RequestParam(required = false) Integer index
+    ) {
+        playlistService.addSongToPlaylist(playlistId, songId, index, currentUserId());
+    }
+
+    @PutMapping("/{playlistId}/songs/{songId}/position")
+    public void moveSong(
+            @PathVariable UUID playlistId,
+            @PathVariable UUID songId,
+            @RequestParam int index
+    ) {
+        playlistService.moveSong(playlistId, songId, index, currentUserId());
+    }
+
+    @PutMapping("/{playlistId}/songs")
+    public void reorder(
+            @PathVariable UUID playlistId,
+            @RequestBody List<UUID> songIds
+    ) {
+        playlistService.reorder(playlistId, songIds, currentUserId());
+    }
+
+    @PostMapping("/{playlistId}/songs/batch")
+    public PlaylistBatchResult batch(
+            @PathVariable UUID playlistId,
+            @RequestBody @Valid PlaylistBatchRequest request
     ) {
-        playlistService.addSongToPlaylist(playlistId, songId, currentUser());
+        return playlistService.applyBatch(playlistId, request, currentUserId());
     }
 
     @DeleteMapping("/{playlistId}/songs/{songId}")
@@ -60,6 +107,6 @@ public class PlaylistController {
             @PathVariable UUID playlistId,
             @PathVariable UUID songId
     ) {
-        playlistService.removeSongFromPlaylist(playlistId, songId, currentUser());
+        playlistService.removeSongFromPlaylist(playlistId, songId, currentUserId());
     }
 }
@@ -1,8 +1,12 @@
 package com.musicstreaming.app.controller;
 
+import com.musicstreaming.app.charts.TrendingService;
+import com.musicstreaming.app.dto.SongPage;
 import com.musicstreaming.app.dto.SongResponse;
+import com.musicstreaming.app.dto.TrendingSong;
 import com.musicstreaming.app.mapper.SongMapper;
 import com.musicstreaming.app.service.SongService;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,18 +17,25 @@ import java.util.UUID;
 @RequestMapping("/api/songs")
 public class SongController {
 
+    private static final int MAX_TRENDING = 100;
+
     private final SongService songService;
+    private final TrendingService trendingService;
 
-    public SongController(SongService songService) {
+    public SongController(
+            SongService songService,
+            TrendingService trendingService
+    ) {
         this.songService = songService;
+        this.trendingService = trendingService;
     }
 
     @GetMapping
-    public List<SongResponse> getAllSongs() {
-        return songService.getAllActiveSongs()
-                .stream()
-                .map(SongMapper::toResponse)
-                .toList();
+    public SongPage getSongs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return songService.getActiveSongs(cursor, limit);
     }
 
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
@@ -33,6 +44,35 @@ public class SongController {
         return SongMapper.toResponse(songService.getSongById(id));
     }
 
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    @GetMapping("/search")
+    public List<SongResponse> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return songService.search(q, limit);
+    }
+
+    /**
+     * Most played songs over a sliding window such as {@code 15m}, {@code 1h}
+     * or {@code 7d}, optionally for one genre or artist.
+     */
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    @GetMapping("/trending")
+    public List<TrendingSong> trending(
+            @RequestParam(defaultValue = "1h") String window,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) String artist,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return trendingService.top(
+                DurationStyle.detectAndParse(window),
+                genre,
+                artist,
+                Math.min(Math.max(limit, 1), MAX_TRENDING)
+        );
+    }
+
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     @GetMapping("/search/artist")
     public List<SongResponse> searchByArtist(@RequestParam String artist) {
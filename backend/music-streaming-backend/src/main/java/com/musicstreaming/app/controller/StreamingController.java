@@ -1,108 +1,240 @@
 package com.musicstreaming.app.controller;
 
-import com.musicstreaming.app.model.Song;
-import com.musicstreaming.app.model.User;
-import com.musicstreaming.app.repository.SongRepository;
-import com.musicstreaming.app.repository.UserRepository;
+import com.musicstreaming.app.charts.TrendingService;
+import com.musicstreaming.app.metrics.StreamMetrics;
+import com.musicstreaming.app.metrics.StreamTimer;
+import com.musicstreaming.app.plays.PlayEvent;
+import com.musicstreaming.app.plays.PlayEventQueue;
+import com.musicstreaming.app.prefetch.PlaylistPrefetcher;
+import com.musicstreaming.app.security.jwt.JwtPrincipal;
 import com.musicstreaming.app.service.StreamingAccessService;
+import com.musicstreaming.app.streaming.AudioRangeWriter;
+import com.musicstreaming.app.streaming.ServedRange;
+import com.musicstreaming.app.streaming.SongMetadata;
+import com.musicstreaming.app.streaming.SongMetadataCache;
+import com.musicstreaming.app.transcoding.TranscodingService;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.http.*;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
-import java.io.RandomAccessFile;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/stream")
 public class StreamingController {
 
-    private final SongRepository songRepository;
-    private final UserRepository userRepository;
+    // Access is checked per request and can be revoked (deactivation), so
+    // browsers may keep a copy for a day but shared caches must not
+    private static final CacheControl AUTHORIZED_MEDIA =
+            CacheControl.maxAge(Duration.ofDays(1)).cachePrivate();
+
+    // Depends on the current playlist order
+    private static final CacheControl PLAYLIST_ORDER = CacheControl.noCache().cachePrivate();
+
+    private final SongMetadataCache songMetadataCache;
     private final StreamingAccessService streamingAccessService;
+    private final AudioRangeWriter audioRangeWriter;
+    private final TranscodingService transcodingService;
+    private final PlayEventQueue playEventQueue;
+    private final TrendingService trendingService;
+    private final StreamMetrics streamMetrics;
+    private final PlaylistPrefetcher playlistPrefetcher;
 
     public StreamingController(
-            SongRepository songRepository,
-            UserRepository userRepository,
-            StreamingAccessService streamingAccessService
+            SongMetadataCache songMetadataCache,
+            StreamingAccessService streamingAccessService,
+            AudioRangeWriter audioRangeWriter,
+            TranscodingService transcodingService,
+            PlayEventQueue playEventQueue,
+            TrendingService trendingService,
+            StreamMetrics streamMetrics,
+            PlaylistPrefetcher playlistPrefetcher
     ) {
-        this.songRepository = songRepository;
-        this.userRepository = userRepository;
+        this.songMetadataCache = songMetadataCache;
         this.streamingAccessService = streamingAccessService;
+        this.audioRangeWriter = audioRangeWriter;
+        this.transcodingService = transcodingService;
+        this.playEventQueue = playEventQueue;
+        this.trendingService = trendingService;
+        this.streamMetrics = streamMetrics;
+        this.playlistPrefetcher = playlistPrefetcher;
     }
 
+    /**
+     * @param playlist the playlist being played, if any, and
+     * @param position the position of this entry in it – the entry after
+     *                 it is prefetched while this one streams
+     */
     @GetMapping("/songs/{id}")
-    public ResponseEntity<byte[]> streamSong(
+    public void streamSong(
             @PathVariable UUID id,
-            HttpServletRequest request
+            @RequestParam(required = false) UUID playlist,
+            @RequestParam(required = false) Integer position,
+            HttpServletRequest request,
+            HttpServletResponse response
     ) throws IOException {
 
-        // 1️⃣ Fetch song
-        Song song = songRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Song not found"));
+        StreamTimer timer = streamMetrics.start(id);
+        JwtPrincipal principal;
+        SongMetadata song;
+        ServedRange served = null;
+        try {
+            // 1️⃣–3️⃣ Fetch song + authorize
+            principal = principal();
+            song = songMetadataCache.get(id);
+            timer.lap(StreamTimer.LOOKUP);
+            checkAccess(song, principal);
+            timer.lap(StreamTimer.AUTH);
+
+            if (playlist != null && position != null) {
+                playlistPrefetcher.onStream(principal.userId(), playlist, position);
+            }
+
+            // 4️⃣ Stream full file / single range / multipart ranges (or 416/304)
+            //    straight from the file channel – no per-request byte[] copies
+            served = audioRangeWriter.write(
+                    Paths.get(song.audioPath()),
+                    MediaType.APPLICATION_OCTET_STREAM,
+                    AUTHORIZED_MEDIA,
+                    request,
+                    response,
+                    timer
+            );
+        } finally {
+            timer.finish(served);
+        }
 
-        // 2️⃣ Get authenticated user
-        Authentication authentication =
-                SecurityContextHolder.getContext().getAuthentication();
+        // 5️⃣ Record the play (non-blocking, dropped if the writer is behind)
+        if (served.bytes() > 0) {
+            playEventQueue.record(new PlayEvent(
+                    principal.userId(),
+                    song.id(),
+                    served.offset(),
+                    served.bytes(),
+                    System.currentTimeMillis()
+            ));
+        }
 
-        UUID userId = UUID.fromString(authentication.getName());
+        // 6️⃣ A response starting at byte 0 is the start of a listen → charts
+        //    (not for deactivated songs an admin can still stream)
+        if (served.bytes() > 0 && served.offset() == 0 && song.active()) {
+            trendingService.recordPlay(principal.userId(), song);
+        }
+    }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    // ================= GAPLESS =================
+
+    /**
+     * The opening bytes of the entries after position {@code after} in one
+     * multipart/mixed response, so the player can start each of them
+     * without waiting for a first request. Each part's Content-Location
+     * carries the playlist hint for that entry.
+     */
+    @GetMapping("/playlists/{playlistId}/next")
+    public void nextTracks(
+            @PathVariable UUID playlistId,
+            @RequestParam int after,
+            @RequestParam(defaultValue = "3") int count,
+            HttpServletResponse response
+    ) throws IOException {
 
-        // 3️⃣ Authorization check (IMPORTANT)
-        if (!streamingAccessService.userHasAccess(song, user)) {
-            throw new AccessDeniedException("No access to this song");
+        JwtPrincipal principal = principal();
+
+        List<AudioRangeWriter.Opening> openings = new ArrayList<>();
+        for (PlaylistPrefetcher.Track track : playlistPrefetcher.nextTracks(playlistId, principal.userId(), after, count)) {
+            SongMetadata song = track.song();
+            // Tracks the caller may not play are left out rather than failing the batch
+            if (streamingAccessService.userHasAccess(song, principal.role())) {
+                String location = "/api/stream/songs/" + song.id()
+                        + "?playlist=" + playlistId + "&position=" + track.position();
+                openings.add(new AudioRangeWriter.Opening(location, Paths.get(song.audioPath())));
+            }
         }
 
-        // 4️⃣ Prepare audio file
-        Path audioPath = Paths.get(song.getAudioPath());
-        long fileSize = Files.size(audioPath);
+        audioRangeWriter.writeOpenings(
+                openings,
+                playlistPrefetcher.segmentSize(),
+                MediaType.APPLICATION_OCTET_STREAM,
+                PLAYLIST_ORDER,
+                response
+        );
+    }
+
+    // ================= HLS =================
 
-        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+    @GetMapping("/songs/{id}/hls/" + TranscodingService.MASTER_PLAYLIST)
+    public void masterPlaylist(
+            @PathVariable UUID id,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
 
-        // 5️⃣ No Range header → full file (rare but valid)
-        if (rangeHeader == null) {
-            byte[] fullFile = Files.readAllBytes(audioPath);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .contentLength(fileSize)
-                    .body(fullFile);
+        authorize(id, principal());
+
+        Path master = transcodingService.masterPlaylist(id);
+        if (master == null) {
+            throw new EntityNotFoundException("Renditions not available for this song");
         }
 
-        // 6️⃣ Handle HTTP Range (Partial Content)
-        String[] ranges = rangeHeader.replace("bytes=", "").split("-");
-        long start = Long.parseLong(ranges[0]);
-        long end = (ranges.length > 1 && !ranges[1].isEmpty())
-                ? Long.parseLong(ranges[1])
-                : fileSize - 1;
+        audioRangeWriter.write(master, TranscodingService.PLAYLIST_TYPE, AUTHORIZED_MEDIA, request, response);
+    }
+
+    @GetMapping("/songs/{id}/hls/{rendition}/{file}")
+    public void renditionFile(
+            @PathVariable UUID id,
+            @PathVariable String rendition,
+            @PathVariable String file,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
 
-        if (end >= fileSize) {
-            end = fileSize - 1;
+        authorize(id, principal());
+
+        Path media = transcodingService.mediaFile(id, rendition, file);
+        if (media == null) {
+            throw new EntityNotFoundException("Segment not found");
         }
 
-        long contentLength = end - start + 1;
-        byte[] data = new byte[(int) contentLength];
+        audioRangeWriter.write(media, TranscodingService.contentType(file), AUTHORIZED_MEDIA, request, response);
+    }
 
-        try (RandomAccessFile file =
-                     new RandomAccessFile(audioPath.toFile(), "r")) {
-            file.seek(start);
-            file.readFully(data);
+    // ================= HELPER =================
+
+    private SongMetadata authorize(UUID id, JwtPrincipal principal) {
+
+        // 1️⃣ Fetch song (cached – repeat range requests do no SQL)
+        SongMetadata song = songMetadataCache.get(id);
+
+        checkAccess(song, principal);
+        return song;
+    }
+
+    private void checkAccess(SongMetadata song, JwtPrincipal principal) {
+
+        // 3️⃣ Authorization check (IMPORTANT)
+        if (!streamingAccessService.userHasAccess(song, principal.role())) {
+            throw new AccessDeniedException("No access to this song");
         }
+    }
+
+    private static JwtPrincipal principal() {
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set(HttpHeaders.CONTENT_RANGE,
-                "bytes " + start + "-" + end + "/" + fileSize);
-        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
-        headers.setContentLength(contentLength);
-        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        // 2️⃣ Get authenticated user (claims from the JWT, no user lookup)
+        Authentication authentication =
+                SecurityContextHolder.getContext().getAuthentication();
 
-        return new ResponseEntity<>(data, headers, HttpStatus.PARTIAL_CONTENT);
+        return (JwtPrincipal) authentication.getPrincipal();
     }
 }
@@ -0,0 +1,9 @@
+package com.musicstreaming.app.covers;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CoverProperties.class)
+public class CoverConfig {
+}
@@ -0,0 +1,12 @@
+package com.musicstreaming.app.covers;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+@ConfigurationProperties(prefix = "covers")
+public record CoverProperties(
+        List<Integer> sizes,
+        float quality,
+        long maxSourcePixels
+) {}
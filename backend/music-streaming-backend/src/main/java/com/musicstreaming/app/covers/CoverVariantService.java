@@ -0,0 +1,302 @@
+package com.musicstreaming.app.covers;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.musicstreaming.app.config.StorageProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Resized, recompressed variants of uploaded cover art.
+ *
+ * Variants are rendered on first request and kept on disk under
+ * {@code <root>/thumbnails}, so grid views download a few KB per tile
+ * instead of the multi-megabyte original. Images the JDK cannot decode
+ * (HEIC, WebP, ...) fall back to the original file.
+ */
+@Service
+public class CoverVariantService {
+
+    private static final Logger log = LoggerFactory.getLogger(CoverVariantService.class);
+
+    private static final Pattern BLOB_NAME = Pattern.compile("[0-9a-f]{64}\\.[a-z0-9]{1,8}");
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final CoverProperties props;
+    private final List<Integer> sizes;
+    private final Path variantDir;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    // Originals that failed to decode, so they are not re-read on every request
+    private final Cache<Path, Boolean> undecodable = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .build();
+
+    public CoverVariantService(CoverProperties props, StorageProperties storage) throws IOException {
+        this.props = props;
+        this.sizes = props.sizes().stream().sorted().toList();
+        this.variantDir = storage.root().resolve("thumbnails");
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        Files.createDirectories(variantDir);
+    }
+
+    /**
+     * @return the variant of {@code original} closest to {@code requestedSize}
+     * in the given format, rendering it if needed, or the original itself
+     * when it cannot be decoded
+     */
+    public Path variant(Path original, Integer requestedSize, MediaType format) throws IOException {
+        int size = pickSize(requestedSize);
+        Path target = variantPath(original, size, format);
+        if (Files.exists(target)) {
+            return target;
+        }
+        if (undecodable.getIfPresent(original) != null) {
+            return original;
+        }
+
+        ReentrantLock lock = locks[Math.floorMod(target.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            // Rendered by a concurrent request while we waited
+            if (Files.exists(target)) {
+                return target;
+            }
+
+            BufferedImage image = readScaled(original, size);
+            if (image == null) {
+                undecodable.put(original, Boolean.TRUE);
+                return original;
+            }
+
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), "variant-", ".part");
+            try {
+                write(image, format, temp);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return target;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops every rendered variant of a cover, once its blob is gone.
+     */
+    public void deleteVariants(Path original) {
+        Path first = variantPath(original, 0, MediaType.IMAGE_JPEG);
+        String prefix = variantKey(original) + "-";
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(first.getParent(), prefix + "*")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException ex) {
+            // Folder missing → nothing was ever rendered
+            log.debug("No variants removed for {}", original, ex);
+        }
+        undecodable.invalidate(original);
+    }
+
+    /**
+     * Smallest configured size covering the request (the largest one when
+     * nothing is requested or the request exceeds all of them).
+     */
+    int pickSize(Integer requested) {
+        if (requested != null) {
+            if (requested <= 0) {
+                throw new IllegalArgumentException("size must be positive");
+            }
+            for (int size : sizes) {
+                if (size >= requested) {
+                    return size;
+                }
+            }
+        }
+        return sizes.get(sizes.size() - 1);
+    }
+
+    /**
+     * Picks the output format from an {@code Accept} header; JPEG unless the
+     * client only takes PNG.
+     */
+    public static MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.IMAGE_JPEG;
+        }
+
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException ex) {
+            return MediaType.IMAGE_JPEG;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.includes(MediaType.IMAGE_JPEG)) {
+                return MediaType.IMAGE_JPEG;
+            }
+            if (type.includes(MediaType.IMAGE_PNG)) {
+                return MediaType.IMAGE_PNG;
+            }
+        }
+        return MediaType.IMAGE_JPEG;
+    }
+
+    // ================= RENDERING =================
+
+    /**
+     * Decodes the original scaled to fit a {@code box}×{@code box} square
+     * (never upscaled), or null when no reader handles it.
+     */
+    private BufferedImage readScaled(Path original, int box) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > props.maxSourcePixels()) {
+                    log.warn("Cover {} is {}x{}, too large to render variants", original, width, height);
+                    return null;
+                }
+
+                // Decode with subsampling to roughly twice the target size, so a
+                // 4000px original never has to sit on the heap at full resolution
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / (2 * box));
+                param.setSourceSubsampling(step, step, 0, 0);
+
+                return resize(reader.read(0, param), box);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not decode cover {}", original, ex);
+            return null;
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage source, int box) {
+        double scale = Math.min(1.0, (double) box / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private void write(BufferedImage image, MediaType format, Path target) throws IOException {
+        if (MediaType.IMAGE_PNG.equals(format)) {
+            ImageIO.write(image, "png", target.toFile());
+            return;
+        }
+
+        // JPEG has no alpha → flatten onto white
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(props.quality());
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    // ================= LAYOUT =================
+
+    /**
+     * {@code <root>/thumbnails/<k[0..2]>/<k[2..4]>/<key>-<size>.<ext>}, where
+     * the key is the content hash of a blob or a hash of a legacy file name.
+     */
+    private Path variantPath(Path original, int size, MediaType format) {
+        String key = variantKey(original);
+        String extension = MediaType.IMAGE_PNG.equals(format) ? "png" : "jpg";
+        return variantDir.resolve(key.substring(0, 2))
+                .resolve(key.substring(2, 4))
+                .resolve(key + "-" + size + "." + extension);
+    }
+
+    private static String variantKey(Path original) {
+        String name = original.getFileName().toString();
+        if (BLOB_NAME.matcher(name).matches()) {
+            return name.substring(0, 64);
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(name.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
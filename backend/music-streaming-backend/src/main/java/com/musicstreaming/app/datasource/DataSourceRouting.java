@@ -0,0 +1,31 @@
+package com.musicstreaming.app.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Pins a read to the primary even inside a read-only transaction, for
+ * results that are cached for longer than the replica lag we tolerate.
+ * A no-op when replica routing is disabled.
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private DataSourceRouting() {}
+
+    public static <T> T primary(Supplier<T> action) {
+        Boolean outer = PRIMARY.get();
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (outer == null) {
+                PRIMARY.remove();
+            }
+        }
+    }
+
+    static boolean primaryRequested() {
+        return PRIMARY.get() != null;
+    }
+}
@@ -0,0 +1,57 @@
+package com.musicstreaming.app.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Opt-in ({@code replicas.enabled}) replacement for the auto-configured
+ * DataSource: the {@code spring.datasource} pool becomes the primary and
+ * read-only transactions are routed to the {@code replicas.nodes}.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(prefix = "replicas", name = "enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    /** Same pool Boot would build, bound to {@code spring.datasource.hikari}. */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        pool.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return pool;
+    }
+
+    @Bean
+    public ReplicaMonitor replicas(ReplicaProperties props, MeterRegistry registry) {
+        return new ReplicaMonitor(props, registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            HikariDataSource primaryDataSource,
+            ReplicaMonitor replicas,
+            ReplicaProperties props,
+            MeterRegistry registry
+    ) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                primaryDataSource,
+                replicas,
+                props.readYourWrites(),
+                registry
+        ));
+    }
+}
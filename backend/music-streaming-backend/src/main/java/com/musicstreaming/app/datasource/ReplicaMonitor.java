@@ -0,0 +1,195 @@
+package com.musicstreaming.app.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Owns the replica pools and probes each replica on a fixed schedule:
+ * reachable at all, and how far its WAL replay is behind the primary.
+ * A replica that is down or lags more than {@code maxLag} gets no reads
+ * until a later probe clears it. Exposed as the {@code replicas} health
+ * contributor; replica trouble never takes the application DOWN because
+ * reads fall back to the primary.
+ */
+public class ReplicaMonitor implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaMonitor.class);
+
+    private static final long CONNECT_TIMEOUT_MILLIS = 2000;
+
+    // 0 on a standalone server (e.g. a second local instance for testing)
+    // and on a streaming replica that has replayed everything it received.
+    // NULL when the replica is not streaming from the primary: everything
+    // it received is replayed, but how far behind that is is unknown.
+    // Without pg_monitor the receiver's status reads as NULL; a running
+    // receiver process is then the best available signal.
+    private static final String LAG_SQL = """
+            SELECT CASE
+                     WHEN NOT pg_is_in_recovery() THEN 0
+                     WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver
+                                      WHERE status IS NULL OR status = 'streaming') THEN NULL
+                     WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                     ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END
+            """;
+
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService executor;
+
+    public ReplicaMonitor(ReplicaProperties props, MeterRegistry registry) {
+        this(pools(props, registry), props.maxLag().toMillis());
+
+        for (Replica replica : replicas) {
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagMillis)
+                    .baseUnit("milliseconds")
+                    .tag("pool", replica.name)
+                    .register(registry);
+        }
+
+        long interval = props.checkInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::checkAll, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /** Unscheduled; probes run only through {@link #checkAll()}. */
+    ReplicaMonitor(List<Replica> replicas, long maxLagMillis) {
+        this.replicas = replicas;
+        this.maxLagMillis = maxLagMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "replica-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    List<Replica> replicas() {
+        return replicas;
+    }
+
+    /** Next usable replica, round-robin, or {@code null} if none is. */
+    Replica next() {
+        int size = replicas.size();
+        int start = next.getAndIncrement() & Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (usable(replica)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    boolean usable(Replica replica) {
+        return replica.up && replica.lagMillis <= maxLagMillis;
+    }
+
+    @Override
+    public Health health() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        for (Replica replica : replicas) {
+            details.put(replica.name, Map.of(
+                    "state", !replica.up ? "down" : usable(replica) ? "up" : "lagging",
+                    "lagMillis", replica.lagMillis
+            ));
+        }
+        return Health.up().withDetails(details).build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof HikariDataSource pool) {
+                pool.close();
+            }
+        }
+    }
+
+    // ================= PROBES =================
+
+    void checkAll() {
+        for (Replica replica : replicas) {
+            boolean wasUsable = usable(replica);
+            check(replica);
+            if (wasUsable != usable(replica)) {
+                log.warn("Replica {} is now {} (lag {} ms)", replica.name,
+                        usable(replica) ? "serving reads" : "excluded", replica.lagMillis);
+            }
+        }
+    }
+
+    private static void check(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_SQL)) {
+            rs.next();
+            long lag = (long) rs.getDouble(1);
+            // Disconnected from the primary → lagging until it streams again
+            replica.lagMillis = rs.wasNull() ? Long.MAX_VALUE : lag;
+            replica.up = true;
+        } catch (SQLException | RuntimeException ex) {
+            replica.up = false;
+        }
+    }
+
+    private static List<Replica> pools(ReplicaProperties props, MeterRegistry registry) {
+        List<ReplicaProperties.Node> nodes = props.nodes() == null ? List.of() : props.nodes();
+        List<Replica> replicas = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            String name = "replica-" + i;
+            replicas.add(new Replica(name, pool(name, nodes.get(i), props.poolSize(), registry)));
+        }
+        return replicas;
+    }
+
+    private static HikariDataSource pool(String name, ReplicaProperties.Node node, int size, MeterRegistry registry) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(node.url());
+        pool.setUsername(node.username());
+        pool.setPassword(node.password());
+        pool.setMaximumPoolSize(size);
+        pool.setReadOnly(true);
+        pool.setConnectionTimeout(CONNECT_TIMEOUT_MILLIS);
+        // A replica that is down at startup must not fail the application
+        pool.setInitializationFailTimeout(-1);
+        // hikaricp.connections.* tagged pool=replica-N
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        return pool;
+    }
+
+    static final class Replica {
+
+        final String name;
+        final DataSource dataSource;
+        volatile boolean up;
+        volatile long lagMillis;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.musicstreaming.app.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @param maxLag         replicas further behind than this get no reads
+ * @param readYourWrites how long a user's reads stay on the primary after
+ *                       one of their own transactions committed a write
+ */
+@ConfigurationProperties(prefix = "replicas")
+public record ReplicaProperties(
+        boolean enabled,
+        List<Node> nodes,
+        int poolSize,
+        Duration maxLag,
+        Duration checkInterval,
+        Duration readYourWrites
+) {
+
+    public record Node(
+            String url,
+            String username,
+            String password
+    ) {}
+}
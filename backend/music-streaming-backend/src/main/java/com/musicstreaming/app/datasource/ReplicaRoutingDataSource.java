@@ -0,0 +1,121 @@
+package com.musicstreaming.app.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.musicstreaming.app.security.jwt.JwtPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends read-only transactions to a usable replica and everything else to
+ * the primary.
+ *
+ * Must sit behind a {@code LazyConnectionDataSourceProxy}: the transaction
+ * manager asks for a connection before the read-only flag is visible, the
+ * proxy defers that until the first statement.
+ *
+ * After a user's read-write transaction commits, that user's reads stay on
+ * the primary for the read-your-writes window, so e.g. a playlist edit is
+ * visible on the very next page load whatever the replica lag.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final ReplicaMonitor monitor;
+    private final Cache<UUID, Boolean> recentWriters;
+    private final MeterRegistry registry;
+    private final Map<String, Counter> routes = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(
+            DataSource primary,
+            ReplicaMonitor monitor,
+            Duration readYourWrites,
+            MeterRegistry registry
+    ) {
+        this.monitor = monitor;
+        this.registry = registry;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWrites)
+                .maximumSize(100_000)
+                .build();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (ReplicaMonitor.Replica replica : monitor.replicas()) {
+            targets.put(replica.name, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        // Unknown keys are a bug, not something to paper over
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        // Outside a transaction (JdbcTemplate writes, startup) → primary
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return route(PRIMARY, "no-transaction");
+        }
+
+        UUID user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriter(user);
+            return route(PRIMARY, "write");
+        }
+
+        if (DataSourceRouting.primaryRequested()) {
+            return route(PRIMARY, "pinned");
+        }
+        if (user != null && recentWriters.getIfPresent(user) != null) {
+            return route(PRIMARY, "read-your-writes");
+        }
+
+        ReplicaMonitor.Replica replica = monitor.next();
+        if (replica == null) {
+            return route(PRIMARY, "no-replica");
+        }
+        return route(replica.name, "read");
+    }
+
+    private void rememberWriter(UUID user) {
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(user, Boolean.TRUE);
+            }
+        });
+    }
+
+    private String route(String target, String reason) {
+        routes.computeIfAbsent(target + '|' + reason, key -> Counter.builder("datasource.routes")
+                        .tag("target", target)
+                        .tag("reason", reason)
+                        .register(registry))
+                .increment();
+        return target;
+    }
+
+    private static UUID currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal
+                ? principal.userId()
+                : null;
+    }
+}
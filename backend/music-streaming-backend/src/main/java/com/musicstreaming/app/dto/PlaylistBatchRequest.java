@@ -0,0 +1,15 @@
+package com.musicstreaming.app.dto;
+
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk playlist edit: {@code remove} is applied first, then {@code add} is
+ * appended in the given order.
+ */
+public record PlaylistBatchRequest(
+        @Size(max = 5000) List<UUID> add,
+        @Size(max = 5000) List<UUID> remove
+) {}
@@ -0,0 +1,6 @@
+package com.musicstreaming.app.dto;
+
+public record PlaylistBatchResult(
+        int added,
+        int removed
+) {}
@@ -0,0 +1,8 @@
+package com.musicstreaming.app.dto;
+
+import java.util.List;
+
+public record PlaylistPage(
+        List<PlaylistResponse> items,
+        String nextCursor
+) {}
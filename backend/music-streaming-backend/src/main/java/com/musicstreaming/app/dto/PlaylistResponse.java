@@ -4,9 +4,14 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * A playlist with its first songs; the rest are paged through
+ * {@code /api/playlists/{id}/songs} when {@code songCount} exceeds them.
+ */
 public record PlaylistResponse(
         UUID id,
         String name,
         LocalDateTime createdAt,
+        long songCount,
         List<SongResponse> songs
 ) {}
@@ -0,0 +1,14 @@
+package com.musicstreaming.app.dto;
+
+import java.util.List;
+
+/**
+ * One page of a playlist in play order; pass {@code nextCursor} back to get
+ * the next one. A song may appear more than once, so an entry is identified
+ * by its {@code position}: that is what a stream's {@code ?position=} hint
+ * and {@code /api/stream/playlists/{id}/next?after=} take.
+ */
+public record PlaylistSongPage(
+        List<PlaylistSongRow> items,
+        String nextCursor
+) {}
@@ -0,0 +1,27 @@
+package com.musicstreaming.app.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One playlist entry with its song columns, as selected by a single flat
+ * projection query.
+ */
+public record PlaylistSongRow(
+        UUID playlistId,
+        int position,
+        UUID songId,
+        String title,
+        String artist,
+        String album,
+        String genre,
+        int durationSeconds,
+        String audioPath,
+        String coverPath,
+        LocalDateTime createdAt
+) {
+
+    public SongResponse song() {
+        return new SongResponse(songId, title, artist, album, genre, durationSeconds, audioPath, coverPath, createdAt);
+    }
+}
@@ -0,0 +1,11 @@
+package com.musicstreaming.app.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record PlaylistSummary(
+        UUID id,
+        String name,
+        LocalDateTime createdAt,
+        long songCount
+) {}
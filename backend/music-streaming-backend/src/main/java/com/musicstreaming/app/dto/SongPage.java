@@ -0,0 +1,12 @@
+package com.musicstreaming.app.dto;
+
+import java.util.List;
+
+/**
+ * One page of the catalog; pass {@code nextCursor} back to get the next one.
+ * {@code nextCursor} is null on the last page.
+ */
+public record SongPage(
+        List<SongResponse> items,
+        String nextCursor
+) {}
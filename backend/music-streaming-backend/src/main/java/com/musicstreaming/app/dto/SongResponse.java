@@ -1,5 +1,6 @@
 package com.musicstreaming.app.dto;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 public record SongResponse(
@@ -10,5 +11,6 @@ public record SongResponse(
         String genre,
         int durationSeconds,
         String audioPath,
-        String coverPath
+        String coverPath,
+        LocalDateTime createdAt
 ) {}
@@ -0,0 +1,11 @@
+package com.musicstreaming.app.dto;
+
+import java.util.UUID;
+
+public record TrendingSong(
+        UUID id,
+        String title,
+        String artist,
+        String genre,
+        long plays
+) {}
@@ -43,6 +43,20 @@ public class GlobalExceptionHandler {
         );
     }
 
+    // Ownership checks in the services (e.g. someone else's playlist)
+    @ExceptionHandler(SecurityException.class)
+    public ResponseEntity<ApiError> handleForbidden(
+            SecurityException ex,
+            HttpServletRequest request
+    ) {
+        return buildError(
+                HttpStatus.FORBIDDEN,
+                "FORBIDDEN",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+    }
+
     // ================= DOMAIN =================
 
     @ExceptionHandler(EntityNotFoundException.class)
@@ -101,6 +115,11 @@ public class GlobalExceptionHandler {
             HttpServletRequest request,
             HttpServletResponse response
     ) {
+        // Streaming already started (e.g. client aborted mid-range) → nothing left to write
+        if (response.isCommitted()) {
+            return null;
+        }
+
         // Skip error response for audio/mpeg streaming endpoints
         String contentType = response.getContentType();
         if (contentType != null && contentType.contains("audio/mpeg")) {
@@ -19,6 +19,7 @@ public class PlaylistMapper {
                 playlist.getId(),
                 playlist.getName(),
                 playlist.getCreatedAt(),
+                songs.size(),
                 songs
         );
     }
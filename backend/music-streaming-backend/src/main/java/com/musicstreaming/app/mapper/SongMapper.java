@@ -14,7 +14,8 @@ public class SongMapper {
                 song.getGenre(),
                 song.getDurationSec(),
                 song.getAudioPath(),
-                song.getCoverPath()
+                song.getCoverPath(),
+                song.getCreatedAt()
         );
     }
 }
@@ -0,0 +1,92 @@
+package com.musicstreaming.app.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters of the audio streaming path, recorded through one
+ * {@link StreamTimer} per request:
+ * <ul>
+ *   <li>{@code stream.phase{phase}} – auth, lookup, io (open + stat) and write</li>
+ *   <li>{@code stream.ttfb} – request start to the first audio byte</li>
+ *   <li>{@code stream.range.size} – bytes per response</li>
+ *   <li>{@code stream.bytes.served{tier}}, {@code stream.active{tier}} –
+ *       per source tier, {@code mapped} (hot-track cache) or {@code file}</li>
+ * </ul>
+ */
+@Component
+public class StreamMetrics {
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> phases = new ConcurrentHashMap<>();
+    private final Map<String, Tier> tiers = new ConcurrentHashMap<>();
+
+    final Timer timeToFirstByte;
+    final DistributionSummary rangeSize;
+
+    public StreamMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        this.timeToFirstByte = Timer.builder("stream.ttfb")
+                .description("Time from the start of a stream request to its first audio byte")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.rangeSize = DistributionSummary.builder("stream.range.size")
+                .description("Audio bytes sent per stream response")
+                .baseUnit(BaseUnits.BYTES)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1024.0)
+                .maximumExpectedValue((double) DataSize.ofMegabytes(64).toBytes())
+                .register(registry);
+
+        // Registered up front so every series exists before the first stream
+        for (String phase : new String[] {StreamTimer.AUTH, StreamTimer.LOOKUP, StreamTimer.IO, StreamTimer.WRITE}) {
+            phase(phase);
+        }
+        tier("mapped");
+        tier("file");
+    }
+
+    public StreamTimer start(UUID songId) {
+        return new StreamTimer(this, songId);
+    }
+
+    Timer phase(String phase) {
+        return phases.computeIfAbsent(phase, p -> Timer.builder("stream.phase")
+                .tag("phase", p)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    Tier tier(String name) {
+        return tiers.computeIfAbsent(name, t -> new Tier(t, registry));
+    }
+
+    static final class Tier {
+
+        final AtomicInteger active = new AtomicInteger();
+        final Counter bytes;
+
+        Tier(String name, MeterRegistry registry) {
+            Gauge.builder("stream.active", active, AtomicInteger::get)
+                    .description("Stream responses currently being written")
+                    .tag("tier", name)
+                    .register(registry);
+            this.bytes = Counter.builder("stream.bytes.served")
+                    .baseUnit(BaseUnits.BYTES)
+                    .tag("tier", name)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.musicstreaming.app.metrics;
+
+import com.musicstreaming.app.streaming.AudioSource;
+import com.musicstreaming.app.streaming.ServedRange;
+import com.musicstreaming.app.streaming.StreamTrace;
+import com.musicstreaming.app.timing.RangeServedEvent;
+import com.musicstreaming.app.timing.ServerTiming;
+import com.musicstreaming.app.timing.StreamEvent;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phase clock of one stream request. The controller closes the auth and
+ * lookup phases with {@link #lap}; {@code AudioRangeWriter} reports the
+ * io phase and the first byte through {@link StreamTrace}; {@link #finish}
+ * closes the write phase. Belongs to the request thread.
+ *
+ * Each phase also goes to the Server-Timing header (when enabled) and to
+ * the JFR {@link StreamEvent} / {@link RangeServedEvent} (when recorded).
+ */
+public final class StreamTimer implements StreamTrace {
+
+    public static final String AUTH = "auth";
+    public static final String LOOKUP = "lookup";
+    public static final String IO = "io";
+    public static final String WRITE = "write";
+
+    private final StreamMetrics metrics;
+    private final UUID songId;
+    private final long start;
+    private final StreamEvent event = new StreamEvent();
+    private RangeServedEvent range;
+    private long mark;
+    private StreamMetrics.Tier tier;
+    private String tierName;
+
+    StreamTimer(StreamMetrics metrics, UUID songId) {
+        this.metrics = metrics;
+        this.songId = songId;
+        this.start = System.nanoTime();
+        this.mark = start;
+        event.begin();
+    }
+
+    /** Records the time since the previous lap as {@code phase}. */
+    public void lap(String phase) {
+        long now = System.nanoTime();
+        long elapsed = now - mark;
+        metrics.phase(phase).record(elapsed, TimeUnit.NANOSECONDS);
+        event.phase(phase, elapsed);
+        ServerTiming.record(phase, elapsed);
+        mark = now;
+    }
+
+    @Override
+    public void opened(AudioSource source) {
+        lap(IO);
+        tierName = source.tier();
+        tier = metrics.tier(tierName);
+        tier.active.incrementAndGet();
+        range = new RangeServedEvent();
+        range.begin();
+    }
+
+    @Override
+    public void firstByte() {
+        metrics.timeToFirstByte.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Closes the write phase. Call exactly once, from a finally block;
+     * {@code served} is {@code null} when the response failed, which then
+     * counts no bytes.
+     */
+    public void finish(ServedRange served) {
+        long bytes = served != null ? served.bytes() : 0;
+        if (tier != null) {
+            lap(WRITE);
+            tier.active.decrementAndGet();
+            if (bytes > 0) {
+                tier.bytes.increment(bytes);
+                metrics.rangeSize.record(bytes);
+            }
+
+            range.end();
+            if (range.shouldCommit()) {
+                range.served(songId.toString(), tierName, served != null ? served.offset() : 0, bytes);
+                range.commit();
+            }
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.served(songId.toString(), tierName, bytes);
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.musicstreaming.app.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One listening session of a song: every range request a user made for it
+ * without a long pause. Append-only – rows are written in JDBC batches by
+ * {@code PlayEventWriter}, never through JPA, and song ids are kept even
+ * after the song is deleted (no foreign keys).
+ */
+@Getter
+@Entity
+@Immutable
+@Table(
+        name = "play_sessions",
+        indexes = {
+                @Index(name = "idx_play_sessions_song_started_at", columnList = "song_id, started_at"),
+                @Index(name = "idx_play_sessions_user_started_at", columnList = "user_id, started_at")
+        }
+)
+public class PlaySession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "song_id", nullable = false)
+    private UUID songId;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "ended_at", nullable = false)
+    private LocalDateTime endedAt;
+
+    @Column(name = "bytes_served", nullable = false)
+    private long bytesServed;
+
+    // Furthest byte offset reached, for "listened to the end" style counting
+    @Column(name = "max_offset", nullable = false)
+    private long maxOffset;
+
+    @Column(nullable = false)
+    private int requests;
+
+    protected PlaySession() {
+        // JPA only
+    }
+}
@@ -2,13 +2,20 @@ package com.musicstreaming.app.model;
 
 import jakarta.persistence.*;
 import lombok.Getter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.*;
 
 @Getter
 @Entity
-@Table(name = "playlists")
+@Table(
+        name = "playlists",
+        indexes = {
+                @Index(name = "idx_playlists_user_created_at_id", columnList = "user_id, created_at, id")
+        }
+)
 public class Playlist {
 
     @Id
@@ -29,6 +36,8 @@ public class Playlist {
             orphanRemoval = true
     )
     @OrderBy("position ASC")
+    // Holds entry ids only; the entries themselves come from "playlist-entries"
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "playlist-songs")
     private List<PlaylistSong> songs = new ArrayList<>();
 
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -46,13 +55,4 @@ public class Playlist {
         this.createdAt = LocalDateTime.now();
     }
 
-    public void addSong(Song song, int position) {
-        PlaylistSong playlistSong = new PlaylistSong(this, song, position);
-        songs.add(playlistSong);
-    }
-
-    public void removeSong(Song song) {
-        songs.removeIf(ps -> ps.getSong().equals(song));
-    }
-
 }
@@ -2,11 +2,15 @@ package com.musicstreaming.app.model;
 
 import jakarta.persistence.*;
 import lombok.Getter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.UUID;
 
 @Getter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "playlist-entries")
 @Table(
         name = "playlist_songs",
         uniqueConstraints = {
@@ -41,4 +45,7 @@ public class PlaylistSong {
         this.position = position;
     }
 
+    public void moveTo(int position) {
+        this.position = position;
+    }
 }
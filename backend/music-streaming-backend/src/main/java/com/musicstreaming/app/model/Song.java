@@ -2,17 +2,24 @@ package com.musicstreaming.app.model;
 
 import jakarta.persistence.*;
 import lombok.Getter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Getter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "songs")
 @Table(
         name = "songs",
         indexes = {
                 @Index(name = "idx_songs_title", columnList = "title"),
-                @Index(name = "idx_songs_artist", columnList = "artist")
+                @Index(name = "idx_songs_artist", columnList = "artist"),
+                @Index(name = "idx_songs_active_created_at_id", columnList = "active, created_at, id"),
+                @Index(name = "idx_songs_audio_path", columnList = "audio_path"),
+                @Index(name = "idx_songs_cover_path", columnList = "cover_path")
         }
 )
 public class Song {
@@ -0,0 +1,14 @@
+package com.musicstreaming.app.plays;
+
+import java.util.UUID;
+
+/**
+ * One served stream response: who, what, where in the file and how much.
+ */
+public record PlayEvent(
+        UUID userId,
+        UUID songId,
+        long offset,
+        long bytes,
+        long timestampMillis
+) {}
@@ -0,0 +1,9 @@
+package com.musicstreaming.app.plays;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PlayEventProperties.class)
+public class PlayEventConfig {
+}
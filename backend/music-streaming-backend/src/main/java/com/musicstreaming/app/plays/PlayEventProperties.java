@@ -0,0 +1,14 @@
+package com.musicstreaming.app.plays;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "plays")
+public record PlayEventProperties(
+        boolean enabled,
+        int queueCapacity,
+        Duration flushInterval,
+        Duration sessionGap,
+        int batchSize
+) {}
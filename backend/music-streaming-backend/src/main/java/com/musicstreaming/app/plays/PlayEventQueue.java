@@ -0,0 +1,77 @@
+package com.musicstreaming.app.plays;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hand-off between streaming threads and {@link PlayEventWriter}.
+ *
+ * Lock-free and bounded: when the writer falls behind (e.g. the database is
+ * down) new events are dropped and counted instead of blocking a stream or
+ * growing the heap.
+ */
+@Component
+public class PlayEventQueue {
+
+    private final PlayEventProperties props;
+    private final ConcurrentLinkedQueue<PlayEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final Counter accepted;
+    private final Counter dropped;
+
+    public PlayEventQueue(PlayEventProperties props, MeterRegistry registry) {
+        this.props = props;
+
+        this.accepted = Counter.builder("plays.events").tag("result", "accepted").register(registry);
+        this.dropped = Counter.builder("plays.events").tag("result", "dropped").register(registry);
+
+        Gauge.builder("plays.queue.size", size, AtomicInteger::get)
+                .register(registry);
+    }
+
+    /**
+     * Never blocks.
+     *
+     * @return false when the event was dropped (disabled or queue full)
+     */
+    public boolean record(PlayEvent event) {
+        if (!props.enabled()) {
+            return false;
+        }
+        if (size.incrementAndGet() > props.queueCapacity()) {
+            size.decrementAndGet();
+            dropped.increment();
+            return false;
+        }
+        queue.offer(event);
+        accepted.increment();
+        return true;
+    }
+
+    /**
+     * Hands every queued event to {@code sink}, oldest first.
+     *
+     * @return the number of events drained
+     */
+    int drainTo(Consumer<PlayEvent> sink) {
+        int drained = 0;
+        PlayEvent event;
+        while ((event = queue.poll()) != null) {
+            size.decrementAndGet();
+            sink.accept(event);
+            drained++;
+        }
+        return drained;
+    }
+
+    public int size() {
+        return size.get();
+    }
+}
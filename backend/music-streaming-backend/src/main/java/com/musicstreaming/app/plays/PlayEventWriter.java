@@ -0,0 +1,176 @@
+package com.musicstreaming.app.plays;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background writer for play events.
+ *
+ * Events are merged per (user, song) into listening sessions – a stream is
+ * usually dozens of range requests – and a session is written as one
+ * {@code play_sessions} row once it has been idle for {@code sessionGap}.
+ * Rows go out as JDBC batches (multi-row INSERTs with reWriteBatchedInserts).
+ */
+@Component
+public class PlayEventWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayEventWriter.class);
+
+    private static final String INSERT_SQL = """
+            INSERT INTO play_sessions (user_id, song_id, started_at, ended_at, bytes_served, max_offset, requests)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final PlayEventQueue queue;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlayEventProperties props;
+
+    // Only touched by the writer thread (and by shutdown once it has stopped)
+    private final Map<SessionKey, OpenSession> sessions = new HashMap<>();
+
+    private final ScheduledExecutorService executor;
+    private final Counter written;
+    private final Counter failed;
+
+    public PlayEventWriter(
+            PlayEventQueue queue,
+            JdbcTemplate jdbcTemplate,
+            PlayEventProperties props,
+            MeterRegistry registry
+    ) {
+        this.queue = queue;
+        this.jdbcTemplate = jdbcTemplate;
+        this.props = props;
+
+        this.written = Counter.builder("plays.sessions.written").register(registry);
+        this.failed = Counter.builder("plays.sessions.failed").register(registry);
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "play-event-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (props.enabled()) {
+            long interval = props.flushInterval().toMillis();
+            executor.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        flush(true);
+    }
+
+    private void flushSafely() {
+        try {
+            flush(false);
+        } catch (RuntimeException ex) {
+            // Never let an exception cancel the schedule
+            log.warn("Play event flush failed", ex);
+        }
+    }
+
+    /**
+     * Drains the queue into open sessions and writes those that are idle
+     * (or all of them, on shutdown).
+     */
+    void flush(boolean all) {
+        queue.drainTo(this::merge);
+
+        long idleBefore = System.currentTimeMillis() - props.sessionGap().toMillis();
+        List<OpenSession> closed = new ArrayList<>();
+
+        Iterator<OpenSession> it = sessions.values().iterator();
+        while (it.hasNext()) {
+            OpenSession session = it.next();
+            if (all || session.lastSeen < idleBefore) {
+                closed.add(session);
+                it.remove();
+            }
+        }
+
+        write(closed);
+    }
+
+    private void merge(PlayEvent event) {
+        SessionKey key = new SessionKey(event.userId(), event.songId());
+        OpenSession session = sessions.get(key);
+
+        // A long pause starts a new session (a replay, not a seek)
+        if (session != null && event.timestampMillis() - session.lastSeen > props.sessionGap().toMillis()) {
+            write(List.of(session));
+            session = null;
+        }
+        if (session == null) {
+            session = new OpenSession(key, event.timestampMillis());
+            sessions.put(key, session);
+        }
+        session.add(event);
+    }
+
+    private void write(List<OpenSession> closed) {
+        if (closed.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, closed, props.batchSize(), (ps, session) -> {
+                ps.setObject(1, session.key.userId());
+                ps.setObject(2, session.key.songId());
+                ps.setTimestamp(3, new Timestamp(session.startedAt));
+                ps.setTimestamp(4, new Timestamp(session.lastSeen));
+                ps.setLong(5, session.bytes);
+                ps.setLong(6, session.maxOffset);
+                ps.setInt(7, session.requests);
+            });
+            written.increment(closed.size());
+        } catch (DataAccessException ex) {
+            // Plays are best effort – drop rather than retry against a sick database
+            failed.increment(closed.size());
+            log.warn("Dropped {} play sessions", closed.size(), ex);
+        }
+    }
+
+    private record SessionKey(UUID userId, UUID songId) {}
+
+    private static final class OpenSession {
+
+        private final SessionKey key;
+        private final long startedAt;
+        private long lastSeen;
+        private long bytes;
+        private long maxOffset;
+        private int requests;
+
+        private OpenSession(SessionKey key, long startedAt) {
+            this.key = key;
+            this.startedAt = startedAt;
+            this.lastSeen = startedAt;
+        }
+
+        void add(PlayEvent event) {
+            lastSeen = Math.max(lastSeen, event.timestampMillis());
+            bytes += event.bytes();
+            maxOffset = Math.max(maxOffset, event.offset() + event.bytes());
+            requests++;
+        }
+    }
+}
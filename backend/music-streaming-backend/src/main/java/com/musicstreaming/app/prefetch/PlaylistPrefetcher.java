@@ -0,0 +1,216 @@
+package com.musicstreaming.app.prefetch;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.musicstreaming.app.dto.PlaylistSongRow;
+import com.musicstreaming.app.repository.PlaylistRepository;
+import com.musicstreaming.app.repository.PlaylistSongRepository;
+import com.musicstreaming.app.streaming.SongMetadata;
+import com.musicstreaming.app.streaming.SongMetadataCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gets the track after the one being played ready before the player asks
+ * for it: when a stream request says which playlist entry it comes from,
+ * the next entry's song metadata is loaded into {@link SongMetadataCache}
+ * and the start of its file is read into the OS page cache, on a background
+ * worker. The first request of the next track then does no SQL and no
+ * cold disk read.
+ *
+ * Entries are addressed by position, not song id: a song can be in a
+ * playlist more than once, and each occurrence has a different successor.
+ *
+ * Bounded like {@code PlayEventQueue}: when the workers fall behind,
+ * prefetches are dropped and counted, never queued without limit.
+ */
+@Component
+public class PlaylistPrefetcher {
+
+    private static final Logger log = LoggerFactory.getLogger(PlaylistPrefetcher.class);
+
+    private static final int READ_CHUNK = 64 * 1024;
+
+    private final PlaylistRepository playlistRepository;
+    private final PlaylistSongRepository playlistSongRepository;
+    private final SongMetadataCache songMetadataCache;
+    private final PrefetchProperties props;
+    private final ExecutorService workers;
+
+    /** Hints handled within the repeat window, per user – see {@link Key}. */
+    private final Cache<Key, Boolean> recent;
+
+    private final Counter submitted;
+    private final Counter repeated;
+    private final Counter dropped;
+    private final Counter warmedBytes;
+
+    @Autowired
+    public PlaylistPrefetcher(
+            PlaylistRepository playlistRepository,
+            PlaylistSongRepository playlistSongRepository,
+            SongMetadataCache songMetadataCache,
+            PrefetchProperties props,
+            MeterRegistry registry
+    ) {
+        this(playlistRepository, playlistSongRepository, songMetadataCache, props, registry, workers(props));
+    }
+
+    PlaylistPrefetcher(
+            PlaylistRepository playlistRepository,
+            PlaylistSongRepository playlistSongRepository,
+            SongMetadataCache songMetadataCache,
+            PrefetchProperties props,
+            MeterRegistry registry,
+            ExecutorService workers
+    ) {
+        this.playlistRepository = playlistRepository;
+        this.playlistSongRepository = playlistSongRepository;
+        this.songMetadataCache = songMetadataCache;
+        this.props = props;
+        this.workers = workers;
+        this.recent = Caffeine.newBuilder()
+                .expireAfterWrite(props.repeatWindow())
+                .maximumSize(100_000)
+                .build();
+
+        this.submitted = Counter.builder("prefetch.tasks").tag("result", "submitted").register(registry);
+        this.repeated = Counter.builder("prefetch.tasks").tag("result", "repeated").register(registry);
+        this.dropped = Counter.builder("prefetch.tasks").tag("result", "dropped").register(registry);
+        this.warmedBytes = Counter.builder("prefetch.warmed")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+    }
+
+    /**
+     * The entry at {@code position} of {@code playlistId} is being streamed
+     * → warm the one after it. Never blocks; a no-op when disabled or
+     * already done recently for this user.
+     */
+    public void onStream(UUID userId, UUID playlistId, int position) {
+        if (!props.enabled()) {
+            return;
+        }
+        if (recent.asMap().putIfAbsent(new Key(userId, playlistId, position), Boolean.TRUE) != null) {
+            repeated.increment();
+            return;
+        }
+        try {
+            workers.execute(() -> prefetch(userId, playlistId, position));
+            submitted.increment();
+        } catch (RejectedExecutionException ex) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Up to {@code count} (capped at {@code max-tracks}) entries following
+     * the one at {@code afterPosition} in the owner's playlist, with their
+     * song metadata now cached.
+     */
+    public List<Track> nextTracks(UUID playlistId, UUID userId, int afterPosition, int count) {
+        if (!playlistRepository.existsByIdAndOwnerId(playlistId, userId)) {
+            throw new EntityNotFoundException("Playlist not found");
+        }
+
+        int limit = Math.min(Math.max(count, 1), props.maxTracks());
+        List<Track> next = new ArrayList<>(limit);
+        for (PlaylistSongRow row : playlistSongRepository.findRowsAfter(playlistId, afterPosition, Limit.of(limit))) {
+            try {
+                next.add(new Track(row.position(), songMetadataCache.get(row.songId())));
+            } catch (EntityNotFoundException ex) {
+                // Deleted since the rows were read
+            }
+        }
+        return next;
+    }
+
+    public long segmentSize() {
+        return props.segmentSize().toBytes();
+    }
+
+    void prefetch(UUID userId, UUID playlistId, int position) {
+        try {
+            for (Track next : nextTracks(playlistId, userId, position, 1)) {
+                warmedBytes.increment(readAhead(Path.of(next.song().audioPath()), segmentSize()));
+            }
+        } catch (EntityNotFoundException ex) {
+            // Not the caller's playlist
+        } catch (IOException | RuntimeException ex) {
+            log.debug("Prefetch after position {} in playlist {} failed", position, playlistId, ex);
+        }
+    }
+
+    /**
+     * Reads up to {@code bytes} from the start of {@code file} and discards
+     * them, leaving the pages in the OS page cache for the next stream.
+     */
+    static long readAhead(Path file, long bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long end = Math.min(bytes, channel.size());
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(Math.max(end, 1), READ_CHUNK));
+            long position = 0;
+            while (position < end) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                position += read;
+            }
+            return position;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private static ExecutorService workers(PrefetchProperties props) {
+        AtomicInteger threads = new AtomicInteger();
+        int size = Math.max(1, props.workers());
+        return new ThreadPoolExecutor(
+                size,
+                size,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, props.queueCapacity())),
+                task -> {
+                    Thread thread = new Thread(task, "prefetch-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+    }
+
+    /** A playlist entry and the song at that position. */
+    public record Track(int position, SongMetadata song) {}
+
+    // The user is part of the key: a hint for someone else's playlist is
+    // dropped by the ownership check and must not suppress the owner's own
+    private record Key(UUID userId, UUID playlistId, int position) {}
+}
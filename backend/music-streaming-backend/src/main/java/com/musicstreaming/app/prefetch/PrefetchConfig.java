@@ -0,0 +1,9 @@
+package com.musicstreaming.app.prefetch;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PrefetchProperties.class)
+public class PrefetchConfig {
+}
@@ -0,0 +1,24 @@
+package com.musicstreaming.app.prefetch;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * @param segmentSize  how much of the start of a next track is warmed, and
+ *                     sent per track by the next-tracks endpoint
+ * @param maxTracks    most tracks the next-tracks endpoint returns
+ * @param repeatWindow a (user, playlist, position) entry is prefetched once
+ *                     per window, however many range requests the current
+ *                     track takes
+ */
+@ConfigurationProperties(prefix = "prefetch")
+public record PrefetchProperties(
+        boolean enabled,
+        int workers,
+        int queueCapacity,
+        DataSize segmentSize,
+        int maxTracks,
+        Duration repeatWindow
+) {}
@@ -1,13 +1,50 @@
 package com.musicstreaming.app.repository;
 
+import com.musicstreaming.app.dto.PlaylistSummary;
 import com.musicstreaming.app.model.Playlist;
-import com.musicstreaming.app.model.User;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface PlaylistRepository extends JpaRepository<Playlist, UUID> {
 
-    List<Playlist> findByOwner(User owner);
+    boolean existsByIdAndOwnerId(UUID id, UUID ownerId);
+
+    /**
+     * Row lock that serializes mutations of one playlist (concurrent
+     * appends would otherwise race for the same position).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Playlist p WHERE p.id = :id")
+    Optional<Playlist> findByIdForUpdate(UUID id);
+
+    // Keyset pagination over (createdAt, id), backed by idx_playlists_user_created_at_id
+
+    @Query("""
+            SELECT new com.musicstreaming.app.dto.PlaylistSummary(
+                p.id, p.name, p.createdAt,
+                (SELECT COUNT(ps) FROM PlaylistSong ps WHERE ps.playlist = p))
+            FROM Playlist p
+            WHERE p.owner.id = :ownerId
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<PlaylistSummary> findPageByOwner(UUID ownerId, Limit limit);
+
+    @Query("""
+            SELECT new com.musicstreaming.app.dto.PlaylistSummary(
+                p.id, p.name, p.createdAt,
+                (SELECT COUNT(ps) FROM PlaylistSong ps WHERE ps.playlist = p))
+            FROM Playlist p
+            WHERE p.owner.id = :ownerId
+              AND (p.createdAt, p.id) < (:createdAt, :id)
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<PlaylistSummary> findPageByOwnerAfter(UUID ownerId, LocalDateTime createdAt, UUID id, Limit limit);
 }
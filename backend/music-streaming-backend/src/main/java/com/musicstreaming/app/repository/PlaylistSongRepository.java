@@ -1,12 +1,115 @@
 package com.musicstreaming.app.repository;
 
+import com.musicstreaming.app.dto.PlaylistSongRow;
 import com.musicstreaming.app.model.Playlist;
 import com.musicstreaming.app.model.PlaylistSong;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.*;
 
 public interface PlaylistSongRepository extends JpaRepository<PlaylistSong, UUID> {
     List<PlaylistSong> findByPlaylistOrderByPositionAsc(Playlist playlist);
     void deleteByPlaylistAndSongId(Playlist playlist, UUID songId);
+
+    /**
+     * The first {@code perPlaylist} songs of each playlist, in one query
+     * whatever the number of playlists.
+     */
+    @Query("""
+            SELECT new com.musicstreaming.app.dto.PlaylistSongRow(
+                r.playlistId, r.position, r.songId, r.title, r.artist, r.album, r.genre,
+                r.durationSec, r.audioPath, r.coverPath, r.createdAt)
+            FROM (
+                SELECT ps.playlist.id AS playlistId, ps.position AS position,
+                       s.id AS songId, s.title AS title, s.artist AS artist, s.album AS album,
+                       s.genre AS genre, s.durationSec AS durationSec, s.audioPath AS audioPath,
+                       s.coverPath AS coverPath, s.createdAt AS createdAt,
+                       row_number() OVER (PARTITION BY ps.playlist.id ORDER BY ps.position) AS rn
+                FROM PlaylistSong ps
+                JOIN ps.song s
+                WHERE ps.playlist.id IN :playlistIds
+            ) r
+            WHERE r.rn <= :perPlaylist
+            ORDER BY r.playlistId, r.position
+            """)
+    List<PlaylistSongRow> findFirstRows(Collection<UUID> playlistIds, int perPlaylist);
+
+    // Keyset pagination over position, backed by uk_playlist_song_position
+
+    @Query("""
+            SELECT new com.musicstreaming.app.dto.PlaylistSongRow(
+                ps.playlist.id, ps.position, s.id, s.title, s.artist, s.album, s.genre,
+                s.durationSec, s.audioPath, s.coverPath, s.createdAt)
+            FROM PlaylistSong ps
+            JOIN ps.song s
+            WHERE ps.playlist.id = :playlistId
+              AND ps.position > :afterPosition
+            ORDER BY ps.position
+            """)
+    List<PlaylistSongRow> findRowsAfter(UUID playlistId, int afterPosition, Limit limit);
+
+    // ================= ORDERING =================
+    // Positions are sparse (see PlaylistService.STEP): an insert takes the
+    // midpoint of its neighbours and only a full gap forces a renumbering.
+
+    @Query("SELECT MAX(ps.position) FROM PlaylistSong ps WHERE ps.playlist.id = :playlistId")
+    Integer findMaxPosition(UUID playlistId);
+
+    /**
+     * The two positions around a slot, in playlist order from {@code offset},
+     * skipping the entry being moved.
+     */
+    @Query("""
+            SELECT ps.position
+            FROM PlaylistSong ps
+            WHERE ps.playlist.id = :playlistId
+              AND ps.id <> :excludedId
+            ORDER BY ps.position
+            OFFSET :offset ROWS FETCH FIRST 2 ROWS ONLY
+            """)
+    List<Integer> findTwoPositionsFrom(UUID playlistId, UUID excludedId, int offset);
+
+    Optional<PlaylistSong> findFirstByPlaylistIdAndSongIdOrderByPositionAsc(UUID playlistId, UUID songId);
+
+    /**
+     * Every occurrence of the given songs, for removal as entities: a bulk
+     * DELETE would drop the cached entries of all playlists, not just this one.
+     */
+    List<PlaylistSong> findByPlaylistIdAndSongIdIn(UUID playlistId, Collection<UUID> songIds);
+
+    // Bulk renumbering, for PlaylistService.rebalance only: like any bulk
+    // statement it invalidates the whole playlist-entries region
+
+    /**
+     * First half of a renumbering: moves every position below zero, in
+     * reverse order, so new positive ones can't hit the unique constraint.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PlaylistSong ps SET ps.position = -ps.position - 1 WHERE ps.playlist.id = :playlistId")
+    int negatePositions(UUID playlistId);
+
+    /**
+     * Second half: spreads the (negated) entries back out at {@code step}
+     * intervals in one statement. The native space keeps Hibernate from
+     * dropping every second-level cache region after it.
+     */
+    @Modifying(clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "playlist_songs"))
+    @Query(value = """
+            UPDATE playlist_songs t
+            SET position = r.rank * :step
+            FROM (
+                SELECT id, row_number() OVER (ORDER BY position DESC) AS rank
+                FROM playlist_songs
+                WHERE playlist_id = :playlistId
+            ) r
+            WHERE t.id = r.id
+            """, nativeQuery = true)
+    int spreadPositions(UUID playlistId, int step);
 }
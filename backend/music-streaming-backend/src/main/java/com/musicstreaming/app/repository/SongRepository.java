@@ -1,19 +1,64 @@
 package com.musicstreaming.app.repository;
 
+import com.musicstreaming.app.dto.SongResponse;
 import com.musicstreaming.app.model.Song;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 public interface SongRepository extends JpaRepository<Song, UUID> {
 
-    @Query("SELECT s FROM Song s WHERE s.active = true ORDER BY s.createdAt DESC")
-    List<Song> findAllActive();
+    // Keyset pagination over (createdAt, id), backed by idx_songs_active_created_at_id
 
+    @Query("""
+            SELECT new com.musicstreaming.app.dto.SongResponse(
+                s.id, s.title, s.artist, s.album, s.genre, s.durationSec, s.audioPath, s.coverPath, s.createdAt)
+            FROM Song s
+            WHERE s.active = true
+            ORDER BY s.createdAt DESC, s.id DESC
+            """)
+    List<SongResponse> findActivePage(Limit limit);
+
+    @Query("""
+            SELECT new com.musicstreaming.app.dto.SongResponse(
+                s.id, s.title, s.artist, s.album, s.genre, s.durationSec, s.audioPath, s.coverPath, s.createdAt)
+            FROM Song s
+            WHERE s.active = true
+              AND (s.createdAt, s.id) < (:createdAt, :id)
+            ORDER BY s.createdAt DESC, s.id DESC
+            """)
+    List<SongResponse> findActivePageAfter(LocalDateTime createdAt, UUID id, Limit limit);
+
+    @Query("SELECT s.id FROM Song s WHERE s.id IN :ids")
+    Set<UUID> findExistingIds(Collection<UUID> ids);
+
+    // References to content-addressed blobs
+
+    boolean existsByAudioPath(String audioPath);
+
+    boolean existsByCoverPath(String coverPath);
+
+    // Query cache holds result ids per argument; the Song rows come from the
+    // "songs" region. Any committed write to songs makes every result stale.
+    // Title substrings are too varied to cache (the search index covers them).
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "song-finders")
+    })
     List<Song> findByArtistIgnoreCaseAndActiveTrue(String artist);
 
     List<Song> findByTitleContainingIgnoreCaseAndActiveTrue(String title);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "song-finders")
+    })
     List<Song> findByGenreIgnoreCaseAndActiveTrue(String genre);
 }
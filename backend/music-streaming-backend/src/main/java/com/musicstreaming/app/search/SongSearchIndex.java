@@ -0,0 +1,626 @@
+package com.musicstreaming.app.search;
+
+import com.musicstreaming.app.dto.SongResponse;
+import com.musicstreaming.app.repository.SongRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over title, artist, album and genre of active songs.
+ *
+ * Every query term matches exactly, by prefix (search-as-you-type) or, for
+ * longer terms without a hit, within a small edit distance found through a
+ * trigram index. Results are ranked by field weight and match quality; all
+ * query terms must match. Uploads and deletes update the index incrementally.
+ *
+ * A short prefix can expand to much of the vocabulary, so expansion is
+ * capped by postings scored, most frequent terms first. Single-term queries
+ * (the search-as-you-type case) are ranked level by level and stop as soon
+ * as the page is full.
+ *
+ * Those live updates may arrive while the startup load is still paging
+ * through the catalog, so each one marks its song id and the load skips
+ * marked ids: a page read before a delete committed cannot bring the song
+ * back, nor an older row replace a newer upload.
+ */
+@Component
+public class SongSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SongSearchIndex.class);
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Field ids are packed into the low bits of each posting
+    private static final int FIELD_BITS = 2;
+    private static final int FIELD_MASK = (1 << FIELD_BITS) - 1;
+    private static final float[] FIELD_WEIGHTS = {3.0f, 2.0f, 1.5f, 1.0f}; // title, artist, album, genre
+
+    private static final float EXACT = 1.0f;
+    private static final float PREFIX = 0.7f;
+    private static final float FUZZY = 0.4f;
+
+    // Ranking levels of a single term, best first: every (match, field) pair
+    private static final List<Level> LEVELS = levels();
+
+    private static final int MAX_PREFIX_POSTINGS = 100_000;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final SongRepository songRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<SongResponse> docs = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private final Map<UUID, Integer> docIds = new HashMap<>();
+    private final TreeMap<String, IntList> postings = new TreeMap<>();
+    private final Map<String, List<String>> trigrams = new HashMap<>();
+    private int deleted;
+    // Ids changed by add/remove while the catalog load runs; null otherwise
+    private Set<UUID> updatedDuringLoad;
+
+    public SongSearchIndex(SongRepository songRepository) {
+        this.songRepository = songRepository;
+    }
+
+    /**
+     * Loads the catalog in keyset pages off the startup thread; searches
+     * before it finishes simply see a partial catalog.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCatalog() {
+        Thread loader = new Thread(this::rebuildFromDatabase, "song-search-indexer");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    void rebuildFromDatabase() {
+        lock.writeLock().lock();
+        try {
+            updatedDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            long started = System.currentTimeMillis();
+            int count = 0;
+
+            List<SongResponse> page = songRepository.findActivePage(Limit.of(REBUILD_PAGE_SIZE));
+            while (!page.isEmpty()) {
+                page.forEach(this::addFromLoad);
+                count += page.size();
+
+                SongResponse last = page.get(page.size() - 1);
+                page = page.size() < REBUILD_PAGE_SIZE
+                        ? List.of()
+                        : songRepository.findActivePageAfter(last.createdAt(), last.id(), Limit.of(REBUILD_PAGE_SIZE));
+            }
+
+            log.info("Indexed {} songs for search in {} ms", count, System.currentTimeMillis() - started);
+        } catch (RuntimeException ex) {
+            log.warn("Could not load songs into the search index", ex);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                updatedDuringLoad = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public void add(SongResponse song) {
+        lock.writeLock().lock();
+        try {
+            markUpdatedLocked(song.id());
+            removeLocked(song.id());
+            indexLocked(song);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID songId) {
+        lock.writeLock().lock();
+        try {
+            markUpdatedLocked(songId);
+            removeLocked(songId);
+
+            // Postings keep tombstoned ids; compact once they dominate
+            if (deleted > 1024 && deleted > docs.size() / 2) {
+                compactLocked();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addFromLoad(SongResponse song) {
+        lock.writeLock().lock();
+        try {
+            // A live add or remove is newer than anything the load read
+            if (updatedDuringLoad != null && updatedDuringLoad.contains(song.id())) {
+                return;
+            }
+            removeLocked(song.id());
+            indexLocked(song);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markUpdatedLocked(UUID songId) {
+        if (updatedDuringLoad != null) {
+            updatedDuringLoad.add(songId);
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<SongResponse> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (terms.size() == 1) {
+                return searchTerm(terms.get(0), limit);
+            }
+
+            IntFloatMap scores = null;
+            for (String term : terms) {
+                scores = scoreTerm(term, scores);
+                if (scores.size == 0) {
+                    return List.of();
+                }
+            }
+
+            return topK(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ================= QUERYING =================
+
+    /**
+     * One term, without scoring every match: a document's score is the best
+     * level it reaches, so levels are walked from the top and the walk stops
+     * once {@code limit} documents are found. Same order as {@link #topK}.
+     */
+    private List<SongResponse> searchTerm(String term, int limit) {
+        IntList exact = postings.get(term);
+        List<IntList> exactLists = exact == null ? List.of() : List.of(exact);
+        List<IntList> prefixLists = prefixExpansions(term);
+
+        BitSet seen = new BitSet(docs.size());
+        BitSet level = new BitSet(docs.size());
+        IntList found = new IntList();
+
+        for (Level l : LEVELS) {
+            collectLevel(l.match() == EXACT ? exactLists : prefixLists, l.field(), seen, level, found, limit);
+            if (found.size == limit) {
+                return docsOf(found);
+            }
+        }
+
+        if (found.size == 0 && term.length() >= MIN_FUZZY_LENGTH) {
+            List<IntList> fuzzyLists = new ArrayList<>();
+            for (String similar : fuzzyTerms(term)) {
+                fuzzyLists.add(postings.get(similar));
+            }
+            // FIELD_WEIGHTS is in descending order
+            for (int field = 0; field < FIELD_WEIGHTS.length && found.size < limit; field++) {
+                collectLevel(fuzzyLists, field, seen, level, found, limit);
+            }
+        }
+        return docsOf(found);
+    }
+
+    /** Adds the unseen live documents with a {@code field} posting, lowest id first. */
+    private void collectLevel(List<IntList> lists, int field, BitSet seen, BitSet level, IntList found, int limit) {
+        level.clear();
+        for (IntList list : lists) {
+            for (int i = 0; i < list.size; i++) {
+                int posting = list.values[i];
+                int docId = posting >>> FIELD_BITS;
+                if ((posting & FIELD_MASK) == field && live.get(docId) && !seen.get(docId)) {
+                    level.set(docId);
+                }
+            }
+        }
+        for (int docId = level.nextSetBit(0); docId >= 0 && found.size < limit; docId = level.nextSetBit(docId + 1)) {
+            found.add(docId);
+        }
+        seen.or(level);
+    }
+
+    /**
+     * Best score per document for one query term. When {@code candidates} is
+     * given, only those documents are kept and their previous score is added.
+     */
+    private IntFloatMap scoreTerm(String term, IntFloatMap candidates) {
+        IntFloatMap best = new IntFloatMap();
+
+        IntList exact = postings.get(term);
+        if (exact != null) {
+            collect(exact, EXACT, candidates, best);
+        }
+        for (IntList list : prefixExpansions(term)) {
+            collect(list, PREFIX, candidates, best);
+        }
+
+        if (best.size == 0 && term.length() >= MIN_FUZZY_LENGTH) {
+            for (String similar : fuzzyTerms(term)) {
+                collect(postings.get(similar), FUZZY, candidates, best);
+            }
+        }
+
+        if (candidates != null) {
+            for (int i = 0; i < best.keys.length; i++) {
+                if (best.keys[i] != IntFloatMap.EMPTY) {
+                    best.values[i] += candidates.get(best.keys[i]);
+                }
+            }
+        }
+        return best;
+    }
+
+    private void collect(IntList list, float match, IntFloatMap candidates, IntFloatMap best) {
+        for (int i = 0; i < list.size; i++) {
+            int posting = list.values[i];
+            int docId = posting >>> FIELD_BITS;
+            if (!live.get(docId) || (candidates != null && !candidates.contains(docId))) {
+                continue;
+            }
+            best.max(docId, FIELD_WEIGHTS[posting & FIELD_MASK] * match);
+        }
+    }
+
+    /**
+     * Posting lists of the terms {@code term} is a proper prefix of. Past
+     * {@link #MAX_PREFIX_POSTINGS} in total the most frequent terms are kept,
+     * rather than the first ones alphabetically.
+     */
+    private List<IntList> prefixExpansions(String term) {
+        List<IntList> lists = new ArrayList<>(postings.subMap(term, false, term + Character.MAX_VALUE, false).values());
+        long total = 0;
+        for (IntList list : lists) {
+            total += list.size;
+        }
+        if (total <= MAX_PREFIX_POSTINGS) {
+            return lists;
+        }
+
+        lists.sort(Comparator.comparingInt((IntList list) -> list.size).reversed());
+        List<IntList> kept = new ArrayList<>();
+        int budget = MAX_PREFIX_POSTINGS;
+        for (IntList list : lists) {
+            if (kept.isEmpty() || list.size <= budget) {
+                kept.add(list);
+                budget -= list.size;
+            }
+        }
+        return kept;
+    }
+
+    private List<String> fuzzyTerms(String term) {
+        int maxEdits = term.length() >= 8 ? 2 : 1;
+        Set<String> grams = trigramsOf(term);
+
+        // Each edit touches at most three trigrams
+        int minShared = Math.max(1, grams.size() - 3 * maxEdits);
+
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            for (String candidate : trigrams.getOrDefault(gram, List.of())) {
+                shared.merge(candidate, 1, Integer::sum);
+            }
+        }
+
+        List<String> matches = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            String candidate = entry.getKey();
+            if (entry.getValue() >= minShared
+                    && Math.abs(candidate.length() - term.length()) <= maxEdits
+                    && editDistance(term, candidate, maxEdits) <= maxEdits) {
+                matches.add(candidate);
+            }
+        }
+        return matches;
+    }
+
+    /** Highest scores first, lower doc id on ties. */
+    private List<SongResponse> topK(IntFloatMap scores, int limit) {
+        // Score bits above (MAX - docId), so a larger key ranks higher;
+        // scores are positive, so their bits order like the floats
+        long[] heap = new long[Math.min(limit, scores.size)];
+        int size = 0;
+        for (int i = 0; i < scores.keys.length; i++) {
+            int docId = scores.keys[i];
+            if (docId == IntFloatMap.EMPTY) {
+                continue;
+            }
+            long key = (long) Float.floatToIntBits(scores.values[i]) << 32 | (Integer.MAX_VALUE - docId);
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(heap, size++);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(heap, size);
+            }
+        }
+
+        Arrays.sort(heap, 0, size);
+        IntList found = new IntList();
+        for (int i = size - 1; i >= 0; i--) {
+            found.add(Integer.MAX_VALUE - (int) heap[i]);
+        }
+        return docsOf(found);
+    }
+
+    private static void siftUp(long[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (heap[parent] <= heap[i]) {
+                return;
+            }
+            swap(heap, parent, i);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int i = 0;
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && heap[left] < heap[smallest]) {
+                smallest = left;
+            }
+            if (right < size && heap[right] < heap[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(heap, smallest, i);
+            i = smallest;
+        }
+    }
+
+    private static void swap(long[] heap, int a, int b) {
+        long tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+
+    private List<SongResponse> docsOf(IntList docIds) {
+        List<SongResponse> result = new ArrayList<>(docIds.size);
+        for (int i = 0; i < docIds.size; i++) {
+            result.add(docs.get(docIds.values[i]));
+        }
+        return result;
+    }
+
+    // ================= INDEXING =================
+
+    private void indexLocked(SongResponse song) {
+        int docId = docs.size();
+        docs.add(song);
+        live.set(docId);
+        docIds.put(song.id(), docId);
+
+        indexField(docId, 0, song.title());
+        indexField(docId, 1, song.artist());
+        indexField(docId, 2, song.album());
+        indexField(docId, 3, song.genre());
+    }
+
+    private void indexField(int docId, int field, String text) {
+        for (String term : new LinkedHashSet<>(tokenize(text))) {
+            IntList list = postings.get(term);
+            if (list == null) {
+                list = new IntList();
+                postings.put(term, list);
+                for (String gram : trigramsOf(term)) {
+                    trigrams.computeIfAbsent(gram, g -> new ArrayList<>(2)).add(term);
+                }
+            }
+            list.add(docId << FIELD_BITS | field);
+        }
+    }
+
+    private void removeLocked(UUID songId) {
+        Integer docId = docIds.remove(songId);
+        if (docId != null) {
+            live.clear(docId);
+            deleted++;
+        }
+    }
+
+    private void compactLocked() {
+        List<SongResponse> survivors = new ArrayList<>(docIds.size());
+        for (int docId = live.nextSetBit(0); docId >= 0; docId = live.nextSetBit(docId + 1)) {
+            survivors.add(docs.get(docId));
+        }
+
+        docs.clear();
+        live.clear();
+        docIds.clear();
+        postings.clear();
+        trigrams.clear();
+        deleted = 0;
+
+        survivors.forEach(this::indexLocked);
+    }
+
+    // ================= TEXT =================
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        List<String> terms = new ArrayList<>();
+        for (String term : NON_WORD.split(folded)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static Set<String> trigramsOf(String term) {
+        String padded = "$" + term + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /** Levenshtein distance, giving up early once it exceeds {@code max}. */
+    static int editDistance(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /** Growable primitive posting list. */
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    private record Level(float match, int field) {
+
+        float score() {
+            return FIELD_WEIGHTS[field] * match;
+        }
+    }
+
+    private static List<Level> levels() {
+        List<Level> levels = new ArrayList<>();
+        for (int field = 0; field < FIELD_WEIGHTS.length; field++) {
+            levels.add(new Level(EXACT, field));
+            levels.add(new Level(PREFIX, field));
+        }
+        levels.sort(Comparator.comparingDouble(Level::score).reversed());
+        return List.copyOf(levels);
+    }
+
+    /** Open-addressing doc id → score map, so scoring boxes nothing. */
+    private static final class IntFloatMap {
+
+        static final int EMPTY = -1;
+
+        private int[] keys = empty(16);
+        private float[] values = new float[16];
+        private int size;
+
+        boolean contains(int key) {
+            return keys[slot(keys, key)] == key;
+        }
+
+        /** Score of {@code key}, 0 when absent; real scores are positive. */
+        float get(int key) {
+            int slot = slot(keys, key);
+            return keys[slot] == key ? values[slot] : 0f;
+        }
+
+        /** Keeps the larger of the current and the given score. */
+        void max(int key, float value) {
+            int slot = slot(keys, key);
+            if (keys[slot] == key) {
+                values[slot] = Math.max(values[slot], value);
+                return;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            float[] oldValues = values;
+            keys = empty(oldKeys.length * 2);
+            values = new float[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = slot(keys, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int slot(int[] keys, int key) {
+            int mask = keys.length - 1;
+            int hash = key * 0x9E3779B9;
+            int slot = (hash ^ hash >>> 16) & mask;
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private static int[] empty(int capacity) {
+            int[] keys = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+    }
+}
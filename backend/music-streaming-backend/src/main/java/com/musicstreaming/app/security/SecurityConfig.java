@@ -36,9 +36,13 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(
                                 "/api/auth/**",
+                                // Actuator only exists on management.server.port/address,
+                                // which is internal; scrapers there carry no JWT
                                 "/actuator/health",
+                                "/actuator/prometheus",
                                 "/storage/**",
                                 "/media/audio/**",
+                                "/media/covers/**",
                                 "/api/songs"
                         ).permitAll()
                         .anyRequest().authenticated()
@@ -1,7 +1,8 @@
 package com.musicstreaming.app.security.filter;
 
+import com.musicstreaming.app.security.jwt.JwtPrincipal;
 import com.musicstreaming.app.security.jwt.JwtService;
-import io.jsonwebtoken.Claims;
+import com.musicstreaming.app.timing.ServerTiming;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -42,15 +43,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = authHeader.substring(7);
 
         try {
-            Claims claims = jwtService.parseToken(token);
-
-            String userId = claims.getSubject();
-            String role = claims.get("role", String.class);
+            long start = System.nanoTime();
+            JwtPrincipal principal = jwtService.authenticate(token);
+            ServerTiming.record("jwt", System.nanoTime() - start);
 
             var authentication = new UsernamePasswordAuthenticationToken(
-                    userId,
+                    principal,
                     null,
-                    List.of(new SimpleGrantedAuthority("ROLE_" + role))
+                    List.of(new SimpleGrantedAuthority("ROLE_" + principal.role().name()))
             );
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -0,0 +1,22 @@
+package com.musicstreaming.app.security.jwt;
+
+import com.musicstreaming.app.model.Role;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.util.UUID;
+
+/**
+ * Authenticated caller as described by a validated JWT.
+ * {@link #getName()} stays the user id so {@code authentication.getName()} keeps working.
+ */
+public record JwtPrincipal(
+        UUID userId,
+        String email,
+        Role role
+) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return userId.toString();
+    }
+}
@@ -2,8 +2,12 @@ package com.musicstreaming.app.security.jwt;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+/**
+ * @param cacheMaxEntries verified tokens kept in memory (0 disables the cache)
+ */
 @ConfigurationProperties(prefix = "jwt")
 public record JwtProperties(
         String secret,
-        long expirationMillis
+        long expirationMillis,
+        long cacheMaxEntries
 ) {}
@@ -1,23 +1,65 @@
 package com.musicstreaming.app.security.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.musicstreaming.app.model.Role;
 import com.musicstreaming.app.model.User;
+import com.musicstreaming.app.timing.CacheLookupEvent;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
+import java.util.UUID;
 
 @Service
 public class JwtService {
 
     private final JwtProperties props;
     private final SecretKey key;
+    private final JwtParser parser;
+    private final Timer parseTimer;
 
-    public JwtService(JwtProperties props) {
+    /**
+     * SHA-256 of the raw token → already verified principal. Entries expire
+     * at the token's own {@code exp}, so a cached token is never honoured longer
+     * than the signature check would have allowed.
+     */
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtService(JwtProperties props, MeterRegistry registry) {
         this.props = props;
         this.key = Keys.hmacShaKeyFor(props.secret().getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(props.cacheMaxEntries())
+                .expireAfter(Expiry.creating((String digest, VerifiedToken token) ->
+                        Duration.ofMillis(Math.max(0, token.expiresAtMillis() - System.currentTimeMillis()))))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(registry, verifiedTokens, "jwtTokens");
+
+        // Cache misses only; hits are in the jwtTokens cache metrics
+        this.parseTimer = Timer.builder("jwt.parse")
+                .description("Signature check and claim decoding of a token")
+                .publishPercentileHistogram()
+                .register(registry);
     }
 
     public String generateToken(User user) {
@@ -33,11 +75,58 @@ public class JwtService {
     }
 
     public Claims parseToken(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
+        return parseTimer.record(() -> parser
                 .parseSignedClaims(token)
-                .getPayload();
+                .getPayload());
+    }
+
+    /**
+     * Verifies the token and returns its principal. Repeat tokens are served
+     * from the cache, skipping the HMAC check and JSON decoding.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public JwtPrincipal authenticate(String token) {
+        String digest = digest(token);
+
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        boolean hit = cached != null && cached.expiresAtMillis() > System.currentTimeMillis();
+        // No key: the digest would identify a live token in the recording
+        CacheLookupEvent.emit("jwtTokens", null, hit);
+        if (hit) {
+            return cached.principal();
+        }
+
+        // Miss (or expired entry) → full verification; invalid tokens throw and are never cached
+        Claims claims = parseToken(token);
+        JwtPrincipal principal = toPrincipal(claims);
+
+        Date expiration = claims.getExpiration();
+        long expiresAt = expiration != null
+                ? expiration.getTime()
+                : System.currentTimeMillis() + props.expirationMillis();
+
+        verifiedTokens.put(digest, new VerifiedToken(principal, expiresAt));
+        return principal;
+    }
+
+    private static JwtPrincipal toPrincipal(Claims claims) {
+        return new JwtPrincipal(
+                UUID.fromString(claims.getSubject()),
+                claims.get("email", String.class),
+                Role.valueOf(claims.get("role", String.class))
+        );
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
     }
 
+    private record VerifiedToken(JwtPrincipal principal, long expiresAtMillis) {}
 }
@@ -1,12 +1,21 @@
 package com.musicstreaming.app.service;
 
+import com.musicstreaming.app.charts.TrendingService;
+import com.musicstreaming.app.mapper.SongMapper;
 import com.musicstreaming.app.model.Song;
 import com.musicstreaming.app.repository.SongRepository;
+import com.musicstreaming.app.search.SongSearchIndex;
+import com.musicstreaming.app.streaming.SongMetadataCache;
+import com.musicstreaming.app.transcoding.TranscodingService;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.UUID;
 
 @Service
@@ -14,16 +23,36 @@ public class AdminSongService {
 
     private final SongRepository songRepository;
     private final FileStorageService fileStorageService;
+    private final SongMetadataCache songMetadataCache;
+    private final SongSearchIndex songSearchIndex;
+    private final StorageGarbageCollector storageGarbageCollector;
+    private final TranscodingService transcodingService;
+    private final TrendingService trendingService;
 
     public AdminSongService(
             SongRepository songRepository,
-            FileStorageService fileStorageService
+            FileStorageService fileStorageService,
+            SongMetadataCache songMetadataCache,
+            SongSearchIndex songSearchIndex,
+            StorageGarbageCollector storageGarbageCollector,
+            TranscodingService transcodingService,
+            TrendingService trendingService
     ) {
         this.songRepository = songRepository;
         this.fileStorageService = fileStorageService;
+        this.songMetadataCache = songMetadataCache;
+        this.songSearchIndex = songSearchIndex;
+        this.storageGarbageCollector = storageGarbageCollector;
+        this.transcodingService = transcodingService;
+        this.trendingService = trendingService;
     }
 
-    @Transactional
+    /**
+     * Ingest pipeline: both files are streamed to temp files, hashed and
+     * atomically moved to their content address before the {@code Song} row
+     * is written in its own short transaction – no DB connection is held
+     * during file I/O.
+     */
     public Song uploadSong(
             String title,
             String artist,
@@ -34,27 +63,65 @@ public class AdminSongService {
             MultipartFile coverImage
     ) throws IOException {
 
-        String audioPath = fileStorageService.storeAudio(audioFile);
+        StoredFile audio = fileStorageService.storeAudio(audioFile);
 
-        String coverPath = null;
+        StoredFile cover = null;
         if (coverImage != null && !coverImage.isEmpty()) {
-            coverPath = fileStorageService.storeCover(coverImage);
+            cover = fileStorageService.storeCover(coverImage);
         }
 
+        // If this save fails the blobs stay unreferenced (they may be shared
+        // with other songs) and are reclaimed by the storage sweep
         Song song = new Song(
                 title,
                 artist,
                 album,
                 genre,
                 durationSec,
-                audioPath,
-                coverPath
+                audio.path(),
+                cover != null ? cover.path() : null
         );
 
-        return songRepository.save(song);
+        Song saved = songRepository.save(song);
+        songSearchIndex.add(SongMapper.toResponse(saved));
+        transcodingService.submit(saved.getId(), Path.of(saved.getAudioPath()));
+        return saved;
+    }
+
+    @Transactional
+    public void deactivateSong(UUID id) {
+        Song song = songRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Song not found"));
+
+        song.deactivate();
+        songMetadataCache.evictAfterCommit(id);
+        afterCommit(() -> {
+            songSearchIndex.remove(id);
+            trendingService.remove(id);
+        });
     }
 
     public void deleteSong(UUID id) {
-        songRepository.deleteById(id);
+        songRepository.findById(id).ifPresent(song -> {
+            songRepository.delete(song);
+            songMetadataCache.evict(id);
+            songSearchIndex.remove(id);
+            trendingService.remove(id);
+            storageGarbageCollector.release(song);
+            transcodingService.delete(id);
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
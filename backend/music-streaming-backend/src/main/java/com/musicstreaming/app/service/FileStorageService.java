@@ -1,59 +1,248 @@
 package com.musicstreaming.app.service;
 
+import com.musicstreaming.app.config.StorageProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @Service
 public class FileStorageService {
 
-    private static final Path AUDIO_DIR = Path.of("storage/audio");
-    private static final Path COVER_DIR = Path.of("storage/covers");
+    private static final Logger log = LoggerFactory.getLogger(FileStorageService.class);
 
-    public FileStorageService() throws IOException {
-        Files.createDirectories(AUDIO_DIR);
-        Files.createDirectories(COVER_DIR);
+    private static final Pattern BLOB_NAME = Pattern.compile("[0-9a-f]{64}\\.[a-z0-9]{1,8}");
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("[a-z0-9]{1,8}");
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path audioDir;
+    private final Path coverDir;
+    // Same file system as the final folders, so the last step can be an atomic rename
+    private final Path tempDir;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public FileStorageService(StorageProperties props) throws IOException {
+        this.audioDir = props.root().resolve("audio");
+        this.coverDir = props.root().resolve("covers");
+        this.tempDir = props.root().resolve("tmp");
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+
+        Files.createDirectories(audioDir);
+        Files.createDirectories(coverDir);
+        Files.createDirectories(tempDir);
     }
 
-    public String storeAudio(MultipartFile audioFile) throws IOException {
+    public StoredFile storeAudio(MultipartFile audioFile) throws IOException {
         String originalName = Objects.requireNonNullElse(
                 audioFile.getOriginalFilename(),
                 "audio.mp3"
         );
 
-        String filename = UUID.randomUUID() + "_" + originalName;
-        Path target = AUDIO_DIR.resolve(filename);
-
-        Files.copy(
-                audioFile.getInputStream(),
-                target,
-                StandardCopyOption.REPLACE_EXISTING
-        );
-
-        return target.toString();
+        return store(audioFile, audioDir, originalName, "mp3");
     }
 
-    public String storeCover(MultipartFile coverImage) throws IOException {
+    public StoredFile storeCover(MultipartFile coverImage) throws IOException {
         String originalName = Objects.requireNonNullElse(
                 coverImage.getOriginalFilename(),
                 "cover.png"
         );
 
-        String filename = UUID.randomUUID() + "_" + originalName;
-        Path target = COVER_DIR.resolve(filename);
+        return store(coverImage, coverDir, originalName, "png");
+    }
 
-        Files.copy(
-                coverImage.getInputStream(),
-                target,
-                StandardCopyOption.REPLACE_EXISTING
-        );
+    /**
+     * Best-effort removal of a blob that no {@code Song} references, unless it
+     * was (re)written within {@code grace} – an upload of the same content may
+     * be about to reference it. Runs under the blob's lock, so it cannot
+     * interleave with an upload reusing the blob; {@code unreferenced} is
+     * checked again under that lock right before deleting.
+     */
+    public boolean deleteIfStale(String path, Duration grace, BooleanSupplier unreferenced) {
+        Path file = Path.of(path);
+        ReentrantLock lock = lockFor(file.getFileName().toString());
+        lock.lock();
+        try {
+            if (!Files.exists(file)) {
+                return false;
+            }
+            Instant modified = Files.getLastModifiedTime(file).toInstant();
+            if (modified.isAfter(Instant.now().minus(grace)) || !unreferenced.getAsBoolean()) {
+                return false;
+            }
+            return Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete {}", path, ex);
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Strong entity tag for a stored file: the content hash for blobs,
+     * size and modification time for anything else.
+     */
+    public static String etag(String filename, long size, long lastModified) {
+        if (filename != null && BLOB_NAME.matcher(filename).matches()) {
+            return "\"" + filename.substring(0, 64) + "\"";
+        }
+        return "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    /**
+     * Resolves a file name handed out by {@link #storeAudio} (or a legacy flat
+     * name) to its location under {@code <root>/audio}, or null if it would
+     * escape that folder.
+     */
+    public Path resolveAudio(String filename) {
+        return resolve(audioDir, filename);
+    }
+
+    /** Same as {@link #resolveAudio} for {@code <root>/covers}. */
+    public Path resolveCover(String filename) {
+        return resolve(coverDir, filename);
+    }
+
+    private static Path resolve(Path dir, String filename) {
+        Path root = dir.toAbsolutePath().normalize();
+        Path resolved = (BLOB_NAME.matcher(filename).matches()
+                ? shardedPath(root, filename)
+                : root.resolve(filename)).normalize();
+
+        return resolved.startsWith(root) ? resolved : null;
+    }
+
+    /**
+     * Lists content-addressed blobs (sharded layout only – legacy flat files
+     * are never touched by garbage collection).
+     */
+    public List<Path> listBlobs() throws IOException {
+        List<Path> blobs = new ArrayList<>();
+        for (Path dir : List.of(audioDir, coverDir)) {
+            try (Stream<Path> files = Files.find(dir, 3, (path, attrs) ->
+                    attrs.isRegularFile() && BLOB_NAME.matcher(path.getFileName().toString()).matches())) {
+                files.forEach(blobs::add);
+            }
+        }
+        return blobs;
+    }
+
+    /**
+     * Streams the upload into a temp file while hashing it, forces it to disk
+     * and then renames it to its content address
+     * {@code <dir>/<h[0..2]>/<h[2..4]>/<sha256>.<ext>} – a reader never sees a
+     * partial file. If a blob with that hash already exists (under any
+     * extension) it is reused and the temp copy is dropped.
+     */
+    private StoredFile store(MultipartFile upload, Path dir, String originalName, String defaultExtension) throws IOException {
+        Path temp = Files.createTempFile(tempDir, "upload-", ".part");
+
+        try {
+            MessageDigest sha256 = sha256();
+            long size;
+
+            try (InputStream in = new DigestInputStream(upload.getInputStream(), sha256);
+                 FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                OutputStream out = Channels.newOutputStream(channel);
+                size = in.transferTo(out);
+                channel.force(true);
+            }
+
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            Path target;
+
+            // Garbage collection deletes under the same lock, so the blob found
+            // here cannot vanish before its mtime is refreshed
+            ReentrantLock lock = lockFor(hash);
+            lock.lock();
+            try {
+                target = findBlob(dir, hash);
+                if (target != null) {
+                    // Duplicate content → reuse the blob; refresh its mtime so GC grace applies
+                    Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                } else {
+                    target = shardedPath(dir, hash + "." + extension(originalName, defaultExtension));
+                    Files.createDirectories(target.getParent());
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            return new StoredFile(target.toString(), hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** The existing blob with this content hash, whatever its extension, or null. */
+    private static Path findBlob(Path dir, String hash) throws IOException {
+        Path shard = shardedPath(dir, hash).getParent();
+        if (!Files.isDirectory(shard)) {
+            return null;
+        }
+        try (DirectoryStream<Path> blobs = Files.newDirectoryStream(shard, hash + ".*")) {
+            for (Path blob : blobs) {
+                if (BLOB_NAME.matcher(blob.getFileName().toString()).matches()) {
+                    return blob;
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Blobs lock on their content hash; legacy flat files on their name. */
+    private ReentrantLock lockFor(String filename) {
+        String key = filename.length() >= 64 ? filename.substring(0, 64) : filename;
+        return locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static Path shardedPath(Path dir, String filename) {
+        return dir.resolve(filename.substring(0, 2))
+                .resolve(filename.substring(2, 4))
+                .resolve(filename);
+    }
+
+    private static String extension(String originalName, String fallback) {
+        int dot = originalName.lastIndexOf('.');
+        String ext = dot < 0 ? "" : originalName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return SAFE_EXTENSION.matcher(ext).matches() ? ext : fallback;
+    }
 
-        return target.toString();
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
     }
 }
@@ -0,0 +1,36 @@
+package com.musicstreaming.app.service;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Conditional-request checks shared by the servlet and reactive writers.
+ * Kept free of servlet types: the reactive node has no servlet API on its
+ * classpath.
+ */
+public final class HttpConditionals {
+
+    private HttpConditionals() {}
+
+    /**
+     * A resumed download only gets the requested range while the client's
+     * copy is still current: strong ETag equality or an exact date match.
+     */
+    public static boolean ifRangeMatches(String ifRange, String etag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+
+        // HttpHeaders parses all three HTTP date formats
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.IF_RANGE, ifRange);
+        try {
+            return headers.getFirstDate(HttpHeaders.IF_RANGE) == lastModified / 1000 * 1000;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+}
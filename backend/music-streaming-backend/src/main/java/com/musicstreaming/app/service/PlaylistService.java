@@ -1,27 +1,61 @@
 package com.musicstreaming.app.service;
 
+import com.musicstreaming.app.dto.PlaylistBatchRequest;
+import com.musicstreaming.app.dto.PlaylistBatchResult;
+import com.musicstreaming.app.dto.PlaylistPage;
+import com.musicstreaming.app.dto.PlaylistResponse;
+import com.musicstreaming.app.dto.PlaylistSongPage;
+import com.musicstreaming.app.dto.PlaylistSongRow;
+import com.musicstreaming.app.dto.PlaylistSummary;
+import com.musicstreaming.app.dto.SongResponse;
 import com.musicstreaming.app.model.Playlist;
-import com.musicstreaming.app.model.Song;
+import com.musicstreaming.app.model.PlaylistSong;
 import com.musicstreaming.app.model.User;
 import com.musicstreaming.app.repository.PlaylistRepository;
+import com.musicstreaming.app.repository.PlaylistSongRepository;
 import com.musicstreaming.app.repository.SongRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class PlaylistService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * Gap between consecutive positions when appending or renumbering, so
+     * about ten inserts fit between any two songs before a renumbering.
+     * Positions stay positive, which the two-phase renumbering relies on.
+     */
+    static final int STEP = 1024;
+
+    // Stands in for "exclude nothing" in the neighbour query
+    private static final UUID NO_ENTRY = new UUID(0, 0);
+
     private final PlaylistRepository playlistRepository;
+    private final PlaylistSongRepository playlistSongRepository;
     private final SongRepository songRepository;
 
     public PlaylistService(
             PlaylistRepository playlistRepository,
+            PlaylistSongRepository playlistSongRepository,
             SongRepository songRepository
     ) {
         this.playlistRepository = playlistRepository;
+        this.playlistSongRepository = playlistSongRepository;
         this.songRepository = songRepository;
     }
 
@@ -30,40 +64,290 @@ public class PlaylistService {
         return playlistRepository.save(playlist);
     }
 
-    public List<Playlist> getUserPlaylists(User owner) {
-        return playlistRepository.findByOwner(owner);
+    /**
+     * A page of the owner's playlists, newest first, each with its first
+     * {@code songLimit} songs. Two queries however many playlists and songs.
+     */
+    @Transactional(readOnly = true)
+    public PlaylistPage getPlaylistPage(UUID ownerId, String cursor, int limit, int songLimit) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        int songs = Math.min(Math.max(songLimit, 0), MAX_PAGE_SIZE);
+        Limit fetch = Limit.of(size + 1);
+
+        List<PlaylistSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = playlistRepository.findPageByOwner(ownerId, fetch);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = playlistRepository.findPageByOwnerAfter(ownerId, after.createdAt(), after.id(), fetch);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            PlaylistSummary last = rows.get(size - 1);
+            nextCursor = new KeysetCursor(last.createdAt(), last.id()).encode();
+        }
+
+        // Single pass over the flat rows, which arrive grouped by playlist
+        Map<UUID, List<SongResponse>> songsByPlaylist = new HashMap<>();
+        if (songs > 0 && !rows.isEmpty()) {
+            List<UUID> ids = rows.stream().map(PlaylistSummary::id).toList();
+            for (PlaylistSongRow row : playlistSongRepository.findFirstRows(ids, songs)) {
+                songsByPlaylist.computeIfAbsent(row.playlistId(), id -> new ArrayList<>()).add(row.song());
+            }
+        }
+
+        List<PlaylistResponse> items = rows.stream()
+                .map(p -> new PlaylistResponse(
+                        p.id(),
+                        p.name(),
+                        p.createdAt(),
+                        p.songCount(),
+                        songsByPlaylist.getOrDefault(p.id(), List.of())
+                ))
+                .toList();
+
+        return new PlaylistPage(items, nextCursor);
+    }
+
+    /**
+     * Entries of one playlist in position order; the cursor is the position of
+     * the last entry returned.
+     */
+    @Transactional(readOnly = true)
+    public PlaylistSongPage getPlaylistSongs(UUID playlistId, UUID ownerId, String cursor, int limit) {
+        if (!playlistRepository.existsByIdAndOwnerId(playlistId, ownerId)) {
+            throw new EntityNotFoundException("Playlist not found");
+        }
+
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        int after = Integer.MIN_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                after = Integer.parseInt(cursor);
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        List<PlaylistSongRow> rows = playlistSongRepository.findRowsAfter(playlistId, after, Limit.of(size + 1));
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            nextCursor = Integer.toString(rows.get(size - 1).position());
+        }
+
+        return new PlaylistSongPage(rows, nextCursor);
+    }
+
+    // ================= ORDERING =================
+
+    /**
+     * Appends a song, or inserts it at {@code index} (0-based) when given.
+     * Touches one row, plus a renumbering on the rare insert into a full gap.
+     */
+    @Transactional
+    public void addSongToPlaylist(UUID playlistId, UUID songId, Integer index, UUID userId) {
+
+        Playlist playlist = lockOwnedPlaylist(playlistId, userId);
+
+        if (!songRepository.existsById(songId)) {
+            throw new IllegalArgumentException("Song not found");
+        }
+
+        int position = slotPosition(playlistId, NO_ENTRY, index);
+        playlistSongRepository.save(
+                new PlaylistSong(playlist, songRepository.getReferenceById(songId), position)
+        );
     }
 
+    /**
+     * Removes and appends many songs in one transaction: one IN query
+     * validates every song, removals are a single DELETE and the new rows
+     * go out as JDBC batches.
+     */
     @Transactional
-    public void addSongToPlaylist(UUID playlistId, UUID songId, User user) {
+    public PlaylistBatchResult applyBatch(UUID playlistId, PlaylistBatchRequest request, UUID userId) {
 
-        Playlist playlist = playlistRepository.findById(playlistId)
-                .orElseThrow(() -> new IllegalArgumentException("Playlist not found"));
+        Playlist playlist = lockOwnedPlaylist(playlistId, userId);
 
-        if (!playlist.getOwner().getId().equals(user.getId())) {
-            throw new SecurityException("Not allowed to modify this playlist");
+        List<UUID> add = request.add() == null ? List.of() : request.add();
+        List<UUID> remove = request.remove() == null ? List.of() : request.remove();
+
+        Set<UUID> existing = add.isEmpty() ? Set.of() : songRepository.findExistingIds(new HashSet<>(add));
+        long missing = add.stream().distinct().filter(id -> !existing.contains(id)).count();
+        if (missing > 0) {
+            throw new IllegalArgumentException(missing + " song(s) not found");
         }
 
-        Song song = songRepository.findById(songId)
-                .orElseThrow(() -> new IllegalArgumentException("Song not found"));
+        int removed = 0;
+        if (!remove.isEmpty()) {
+            List<PlaylistSong> gone = playlistSongRepository.findByPlaylistIdAndSongIdIn(playlistId, new HashSet<>(remove));
+            playlistSongRepository.deleteAll(gone);
+            removed = gone.size();
+        }
 
-        int nextPosition = playlist.getSongs().size() + 1;
-        playlist.addSong(song, nextPosition);
+        if (!add.isEmpty()) {
+            Integer max = playlistSongRepository.findMaxPosition(playlistId);
+            if (max != null && max > Integer.MAX_VALUE - (long) STEP * add.size()) {
+                rebalance(playlistId);
+                max = playlistSongRepository.findMaxPosition(playlistId);
+            }
+            int base = max == null ? 0 : max;
+
+            List<PlaylistSong> rows = new ArrayList<>(add.size());
+            for (int i = 0; i < add.size(); i++) {
+                rows.add(new PlaylistSong(playlist, songRepository.getReferenceById(add.get(i)), base + (i + 1) * STEP));
+            }
+            playlistSongRepository.saveAll(rows);
+        }
+
+        return new PlaylistBatchResult(add.size(), removed);
     }
 
+    /**
+     * Moves (the first occurrence of) a song to {@code index} (0-based).
+     */
     @Transactional
-    public void removeSongFromPlaylist(UUID playlistId, UUID songId, User user) {
+    public void moveSong(UUID playlistId, UUID songId, int index, UUID userId) {
 
-        Playlist playlist = playlistRepository.findById(playlistId)
-                .orElseThrow(() -> new IllegalArgumentException("Playlist not found"));
+        lockOwnedPlaylist(playlistId, userId);
 
-        if (!playlist.getOwner().getId().equals(user.getId())) {
-            throw new SecurityException("Not allowed to modify this playlist");
+        UUID entryId = playlistSongRepository
+                .findFirstByPlaylistIdAndSongIdOrderByPositionAsc(playlistId, songId)
+                .orElseThrow(() -> new IllegalArgumentException("Song not in playlist"))
+                .getId();
+
+        int position = slotPosition(playlistId, entryId, index);
+        // Looked up again: a renumbering in slotPosition clears the persistence context
+        playlistSongRepository.findById(entryId).orElseThrow().moveTo(position);
+    }
+
+    @Transactional
+    public void removeSongFromPlaylist(UUID playlistId, UUID songId, UUID userId) {
+
+        lockOwnedPlaylist(playlistId, userId);
+
+        // Gaps are fine – positions only need to be ordered
+        List<PlaylistSong> entries = playlistSongRepository.findByPlaylistIdAndSongIdIn(playlistId, Set.of(songId));
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("Song not in playlist");
+        }
+        playlistSongRepository.deleteAll(entries);
+    }
+
+    /**
+     * Replaces the whole order; {@code songIds} must list exactly the songs
+     * already in the playlist (duplicates included).
+     */
+    @Transactional
+    public void reorder(UUID playlistId, List<UUID> songIds, UUID userId) {
+
+        // A JSON null would otherwise blow up inside the sort below
+        if (songIds == null || songIds.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Order must not contain null song ids");
+        }
+
+        Playlist playlist = lockOwnedPlaylist(playlistId, userId);
+
+        List<PlaylistSong> entries = playlistSongRepository.findByPlaylistOrderByPositionAsc(playlist);
+        List<UUID> current = entries.stream()
+                .map(ps -> ps.getSong().getId())
+                .sorted()
+                .toList();
+        if (!current.equals(songIds.stream().sorted().toList())) {
+            throw new IllegalArgumentException("Order must list exactly the songs in the playlist");
+        }
+
+        // Entity updates rather than bulk statements, which would drop the
+        // cached entries of every playlist. Everything is parked below zero
+        // first so no update hits the unique position constraint
+        for (int i = 0; i < entries.size(); i++) {
+            entries.get(i).moveTo(-(i + 1));
+        }
+        playlistSongRepository.flush();
+
+        // Duplicates of a song keep their relative order
+        Map<UUID, Deque<PlaylistSong>> bySong = new HashMap<>();
+        for (PlaylistSong entry : entries) {
+            bySong.computeIfAbsent(entry.getSong().getId(), id -> new ArrayDeque<>()).addLast(entry);
+        }
+        for (int i = 0; i < songIds.size(); i++) {
+            bySong.get(songIds.get(i)).removeFirst().moveTo((i + 1) * STEP);
+        }
+    }
+
+    /**
+     * Position for a new slot at {@code index} among the entries other than
+     * {@code excludedId}: the midpoint of its neighbours, or past the end.
+     */
+    private int slotPosition(UUID playlistId, UUID excludedId, Integer index) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Integer position = index == null
+                    ? appendPosition(playlistId)
+                    : midpoint(playlistId, excludedId, index);
+            if (position != null) {
+                return position;
+            }
+            rebalance(playlistId);
+        }
+        throw new IllegalStateException("Playlist positions exhausted");
+    }
+
+    private Integer appendPosition(UUID playlistId) {
+        Integer max = playlistSongRepository.findMaxPosition(playlistId);
+        if (max == null) {
+            return STEP;
+        }
+        return max <= Integer.MAX_VALUE - STEP ? max + STEP : null;
+    }
+
+    private Integer midpoint(UUID playlistId, UUID excludedId, int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("index must not be negative");
         }
 
-        Song song = songRepository.findById(songId)
-                .orElseThrow(() -> new IllegalArgumentException("Song not found"));
+        List<Integer> around = playlistSongRepository.findTwoPositionsFrom(playlistId, excludedId, Math.max(index - 1, 0));
+
+        int previous;
+        Integer next;
+        if (index == 0) {
+            previous = 0;
+            next = around.isEmpty() ? null : around.get(0);
+        } else {
+            if (around.isEmpty()) {
+                return appendPosition(playlistId);
+            }
+            previous = around.get(0);
+            next = around.size() > 1 ? around.get(1) : null;
+        }
 
-        playlist.removeSong(song);
+        if (next == null) {
+            return appendPosition(playlistId);
+        }
+        // No integer left between the neighbours → caller renumbers and retries
+        return next - previous > 1 ? previous + (next - previous) / 2 : null;
+    }
+
+    /**
+     * Bulk renumbering, only when a gap runs out. It invalidates the cached
+     * entries of every playlist, which is why everyday edits are entity
+     * updates instead.
+     */
+    private void rebalance(UUID playlistId) {
+        playlistSongRepository.negatePositions(playlistId);
+        playlistSongRepository.spreadPositions(playlistId, STEP);
+    }
+
+    private Playlist lockOwnedPlaylist(UUID playlistId, UUID userId) {
+        Playlist playlist = playlistRepository.findByIdForUpdate(playlistId)
+                .orElseThrow(() -> new IllegalArgumentException("Playlist not found"));
+
+        if (!playlist.getOwner().getId().equals(userId)) {
+            throw new SecurityException("Not allowed to modify this playlist");
+        }
+        return playlist;
     }
 }
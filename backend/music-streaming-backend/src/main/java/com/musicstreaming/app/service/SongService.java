@@ -1,8 +1,14 @@
 package com.musicstreaming.app.service;
 
+import com.musicstreaming.app.datasource.DataSourceRouting;
+import com.musicstreaming.app.dto.SongPage;
+import com.musicstreaming.app.dto.SongResponse;
 import com.musicstreaming.app.model.Song;
 import com.musicstreaming.app.repository.SongRepository;
+import com.musicstreaming.app.search.SongSearchIndex;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
@@ -10,34 +16,80 @@ import java.util.UUID;
 @Service
 public class SongService {
 
+    static final int MAX_PAGE_SIZE = 200;
+    static final int MAX_SEARCH_RESULTS = 100;
+
     private final SongRepository songRepository;
+    private final SongSearchIndex songSearchIndex;
 
-    public SongService(SongRepository songRepository) {
+    public SongService(
+            SongRepository songRepository,
+            SongSearchIndex songSearchIndex
+    ) {
         this.songRepository = songRepository;
+        this.songSearchIndex = songSearchIndex;
     }
 
     public Song addSong(Song song) {
         return songRepository.save(song);
     }
 
-    public List<Song> getAllActiveSongs() {
-        return songRepository.findAllActive();
+    /**
+     * Keyset page of active songs, newest first. Cost does not grow with the
+     * catalog: each page is one index range scan of {@code limit + 1} rows.
+     */
+    @Transactional(readOnly = true)
+    public SongPage getActiveSongs(String cursor, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        Limit fetch = Limit.of(size + 1);
+
+        List<SongResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = songRepository.findActivePage(fetch);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = songRepository.findActivePageAfter(after.createdAt(), after.id(), fetch);
+        }
+
+        if (rows.size() <= size) {
+            return new SongPage(rows, null);
+        }
+
+        List<SongResponse> items = rows.subList(0, size);
+        SongResponse last = items.get(size - 1);
+        return new SongPage(items, new KeysetCursor(last.createdAt(), last.id()).encode());
     }
 
+    @Transactional(readOnly = true)
     public Song getSongById(UUID songId) {
         return songRepository.findById(songId)
                 .orElseThrow(() -> new IllegalArgumentException("Song not found"));
     }
 
+    /**
+     * Ranked search over title, artist, album and genre, answered from the
+     * in-memory index (prefix and typo tolerant), never from SQL.
+     */
+    public List<SongResponse> search(String query, int limit) {
+        return songSearchIndex.search(query, Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS));
+    }
+
+    // The artist and genre finders are query-cached. A miss reads the
+    // primary: a result from a lagging replica would be stamped as newer
+    // than the last songs write and survive until the next one.
+
+    @Transactional(readOnly = true)
     public List<Song> searchByArtist(String artist) {
-        return songRepository.findByArtistIgnoreCaseAndActiveTrue(artist);
+        return DataSourceRouting.primary(() -> songRepository.findByArtistIgnoreCaseAndActiveTrue(artist));
     }
 
+    @Transactional(readOnly = true)
     public List<Song> searchByTitle(String title) {
         return songRepository.findByTitleContainingIgnoreCaseAndActiveTrue(title);
     }
 
+    @Transactional(readOnly = true)
     public List<Song> searchByGenre(String genre) {
-        return songRepository.findByGenreIgnoreCaseAndActiveTrue(genre);
+        return DataSourceRouting.primary(() -> songRepository.findByGenreIgnoreCaseAndActiveTrue(genre));
     }
 }
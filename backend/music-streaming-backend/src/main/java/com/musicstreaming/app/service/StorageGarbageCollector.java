@@ -0,0 +1,112 @@
+package com.musicstreaming.app.service;
+
+import com.musicstreaming.app.config.StorageProperties;
+import com.musicstreaming.app.covers.CoverVariantService;
+import com.musicstreaming.app.model.Song;
+import com.musicstreaming.app.repository.SongRepository;
+import com.musicstreaming.app.streaming.MappedAudioCache;
+import com.musicstreaming.app.transcoding.TranscodingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * Reclaims content-addressed blobs (and rendered cover variants) once no
+ * {@code Song} row references them, and HLS ladders of deleted songs.
+ * The reference count is the number of rows pointing at a path, so it can
+ * never drift from the database. Uploads reusing a blob and deletions are
+ * serialized per content hash inside {@link FileStorageService}.
+ */
+@Service
+public class StorageGarbageCollector {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageGarbageCollector.class);
+
+    private final SongRepository songRepository;
+    private final FileStorageService fileStorageService;
+    private final CoverVariantService coverVariantService;
+    private final MappedAudioCache mappedAudioCache;
+    private final TranscodingService transcodingService;
+    private final StorageProperties props;
+
+    public StorageGarbageCollector(
+            SongRepository songRepository,
+            FileStorageService fileStorageService,
+            CoverVariantService coverVariantService,
+            MappedAudioCache mappedAudioCache,
+            TranscodingService transcodingService,
+            StorageProperties props
+    ) {
+        this.songRepository = songRepository;
+        this.fileStorageService = fileStorageService;
+        this.coverVariantService = coverVariantService;
+        this.mappedAudioCache = mappedAudioCache;
+        this.transcodingService = transcodingService;
+        this.props = props;
+    }
+
+    /**
+     * Called after a song row is gone: drops its audio and cover blobs if
+     * nothing else shares them, along with the audio mapping and the cover
+     * variants – but only when the blob itself was actually deleted.
+     */
+    public void release(Song deleted) {
+        if (deleteIfUnreferenced(deleted.getAudioPath())) {
+            mappedAudioCache.evict(Path.of(deleted.getAudioPath()));
+        }
+        if (deleted.getCoverPath() != null && deleteIfUnreferenced(deleted.getCoverPath())) {
+            coverVariantService.deleteVariants(Path.of(deleted.getCoverPath()));
+        }
+    }
+
+    /**
+     * Periodic sweep for blobs orphaned by failed uploads or missed releases
+     * (including blobs still inside the grace window when their song went),
+     * and for ladders whose song was deleted while they were being encoded.
+     */
+    @Scheduled(fixedDelayString = "${storage.gc-interval}", initialDelayString = "${storage.gc-interval}")
+    public void sweep() {
+        int reclaimed = 0;
+        try {
+            for (Path blob : fileStorageService.listBlobs()) {
+                if (deleteIfUnreferenced(blob.toString())) {
+                    mappedAudioCache.evict(blob);
+                    coverVariantService.deleteVariants(blob);
+                    reclaimed++;
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Storage sweep aborted", ex);
+        }
+
+        int ladders = 0;
+        try {
+            for (UUID songId : transcodingService.ladders()) {
+                if (!songRepository.existsById(songId)) {
+                    transcodingService.delete(songId);
+                    ladders++;
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Ladder sweep aborted", ex);
+        }
+
+        if (reclaimed > 0 || ladders > 0) {
+            log.info("Storage sweep reclaimed {} orphaned blobs and {} orphaned ladders", reclaimed, ladders);
+        }
+    }
+
+    private boolean deleteIfUnreferenced(String path) {
+        return !referenced(path)
+                && fileStorageService.deleteIfStale(path, props.gcGrace(), () -> !referenced(path));
+    }
+
+    private boolean referenced(String path) {
+        return songRepository.existsByAudioPath(path) || songRepository.existsByCoverPath(path);
+    }
+}
@@ -0,0 +1,14 @@
+package com.musicstreaming.app.service;
+
+/**
+ * A file that has been fully written, fsynced and moved into its final place.
+ *
+ * @param path   storage path as persisted on {@code Song}
+ * @param sha256 hex digest computed while the upload was streamed
+ * @param size   bytes written
+ */
+public record StoredFile(
+        String path,
+        String sha256,
+        long size
+) {}
@@ -3,6 +3,7 @@ package com.musicstreaming.app.service;
 import com.musicstreaming.app.model.Role;
 import com.musicstreaming.app.model.Song;
 import com.musicstreaming.app.model.User;
+import com.musicstreaming.app.streaming.SongMetadata;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,16 +14,28 @@ public class StreamingAccessService {
      * This is intentionally isolated from controller logic.
      */
     public boolean userHasAccess(Song song, User user) {
+        return roleHasAccess(song.isActive(), user.getRole());
+    }
 
-        // ADMIN → full access
-        if (user.getRole() == Role.ADMIN) {
+    /**
+     * Same rules, driven by cached song metadata and the role from the JWT,
+     * so the streaming hot path needs no database round-trip.
+     */
+    public boolean userHasAccess(SongMetadata song, Role role) {
+        return roleHasAccess(song.active(), role);
+    }
+
+    private boolean roleHasAccess(boolean songActive, Role role) {
+
+        // ADMIN → full access, including deactivated songs
+        if (role == Role.ADMIN) {
             return true;
         }
 
-        // NORMAL USER → currently full access
+        // NORMAL USER → every active song
         // (later you can restrict previews, subscriptions, etc.)
-        if (user.getRole() == Role.USER) {
-            return true;
+        if (role == Role.USER) {
+            return songActive;
         }
 
         return false;
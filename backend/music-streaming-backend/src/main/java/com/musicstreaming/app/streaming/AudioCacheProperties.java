@@ -0,0 +1,17 @@
+package com.musicstreaming.app.streaming;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * @param maxSize            total bytes of audio kept memory-mapped
+ * @param maxFileSize        larger files are always streamed from disk
+ * @param admissionThreshold requests a file needs before it gets mapped
+ */
+@ConfigurationProperties(prefix = "streaming.cache")
+public record AudioCacheProperties(
+        boolean enabled,
+        DataSize maxSize,
+        DataSize maxFileSize,
+        int admissionThreshold
+) {}
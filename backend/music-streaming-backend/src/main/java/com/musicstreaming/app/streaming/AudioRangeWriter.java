@@ -0,0 +1,390 @@
+package com.musicstreaming.app.streaming;
+
+import com.musicstreaming.app.service.FileStorageService;
+import com.musicstreaming.app.service.HttpConditionals;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes audio files to the servlet response, honouring HTTP Range requests.
+ * Bytes come from an {@link AudioSource} (mapped hot track or file channel),
+ * so a request never holds more than a transfer buffer on the heap, whatever
+ * the track size.
+ *
+ * Responses carry a strong ETag and Last-Modified; conditional requests are
+ * answered with 304 and a Range whose If-Range no longer matches gets the
+ * whole file.
+ */
+@Component
+public class AudioRangeWriter {
+
+    /** Above this many ranges we answer with the whole file instead. */
+    static final int MAX_RANGES = 16;
+
+    private static final String CRLF = "\r\n";
+
+    private final MappedAudioCache audioCache;
+
+    public AudioRangeWriter(MappedAudioCache audioCache) {
+        this.audioCache = audioCache;
+    }
+
+    public ServedRange write(
+            Path file,
+            MediaType contentType,
+            CacheControl cacheControl,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        return write(file, contentType, cacheControl, request, response, StreamTrace.NONE);
+    }
+
+    public ServedRange write(
+            Path file,
+            MediaType contentType,
+            CacheControl cacheControl,
+            HttpServletRequest request,
+            HttpServletResponse response,
+            StreamTrace trace
+    ) throws IOException {
+
+        try (AudioSource source = audioCache.open(file)) {
+            return write(source, file, contentType, cacheControl, request, response, trace);
+        }
+    }
+
+    /**
+     * Same as {@link #write(Path, MediaType, CacheControl, HttpServletRequest, HttpServletResponse)}
+     * but always from a plain file channel, for files such as cover art that
+     * should not take mapped memory away from hot audio.
+     */
+    public ServedRange writeFile(
+            Path file,
+            MediaType contentType,
+            CacheControl cacheControl,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+
+        try (AudioSource source = new FileAudioSource(file)) {
+            return write(source, file, contentType, cacheControl, request, response, StreamTrace.NONE);
+        }
+    }
+
+    private ServedRange write(
+            AudioSource source,
+            Path file,
+            MediaType contentType,
+            CacheControl cacheControl,
+            HttpServletRequest request,
+            HttpServletResponse response,
+            StreamTrace trace
+    ) throws IOException {
+
+        trace.opened(source);
+        long length = source.length();
+        long lastModified = source.lastModified();
+        String etag = FileStorageService.etag(file.getFileName().toString(), length, lastModified);
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+
+        // If-None-Match / If-Modified-Since → 304 (If-Match failures → 412)
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return ServedRange.NONE;
+        }
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        List<ByteRange> ranges = rangeHeader == null || !HttpConditionals.ifRangeMatches(ifRange, etag, lastModified)
+                ? null
+                : parseRanges(rangeHeader, length);
+
+        // No (usable) Range header → full file
+        if (ranges == null) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType.toString());
+            response.setContentLengthLong(length);
+            source.transferTo(0, length, target(response.getOutputStream(), trace));
+            response.flushBuffer();
+            return new ServedRange(0, length);
+        }
+
+        // Nothing in the header overlaps the file
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.setContentLength(0);
+            return ServedRange.NONE;
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+
+        long served = 0;
+        for (ByteRange range : ranges) {
+            served += range.length();
+        }
+
+        if (ranges.size() == 1) {
+            ByteRange range = ranges.get(0);
+            response.setContentType(contentType.toString());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, range.contentRange(length));
+            response.setContentLengthLong(range.length());
+            source.transferTo(range.start(), range.length(), target(response.getOutputStream(), trace));
+        } else {
+            writeMultipart(source, length, ranges, contentType, response, trace);
+        }
+
+        response.flushBuffer();
+        return new ServedRange(ranges.get(0).start(), served);
+    }
+
+    private void writeMultipart(
+            AudioSource source,
+            long length,
+            List<ByteRange> ranges,
+            MediaType contentType,
+            HttpServletResponse response,
+            StreamTrace trace
+    ) throws IOException {
+
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = 0;
+        for (ByteRange range : ranges) {
+            byte[] header = partHeader(boundary, contentType, range.contentRange(length), null);
+            partHeaders.add(header);
+            contentLength += header.length + range.length();
+        }
+        byte[] closing = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length;
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+
+        OutputStream out = response.getOutputStream();
+        WritableByteChannel target = target(out, trace);
+        for (int i = 0; i < ranges.size(); i++) {
+            ByteRange range = ranges.get(i);
+            out.write(partHeaders.get(i));
+            source.transferTo(range.start(), range.length(), target);
+        }
+        out.write(closing);
+    }
+
+    /**
+     * The opening bytes of several files in one {@code multipart/mixed}
+     * response, so a player can start the next tracks without a round trip
+     * each. Every part carries the first {@code bytes} of its file, a
+     * Content-Range with the full length and a Content-Location to continue
+     * from with ordinary Range requests. Missing or empty files are left
+     * out; with nothing left the answer is 204.
+     */
+    public void writeOpenings(
+            List<Opening> openings,
+            long bytes,
+            MediaType contentType,
+            CacheControl cacheControl,
+            HttpServletResponse response
+    ) throws IOException {
+
+        List<AudioSource> sources = new ArrayList<>(openings.size());
+        try {
+            String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+            List<byte[]> partHeaders = new ArrayList<>(openings.size());
+            List<ByteRange> ranges = new ArrayList<>(openings.size());
+            long contentLength = 0;
+
+            for (Opening opening : openings) {
+                AudioSource source;
+                try {
+                    source = audioCache.open(opening.file());
+                } catch (NoSuchFileException ex) {
+                    continue;
+                }
+                long length = source.length();
+                if (length == 0) {
+                    source.close();
+                    continue;
+                }
+                sources.add(source);
+                ByteRange range = new ByteRange(0, Math.min(bytes, length) - 1);
+                byte[] header = partHeader(boundary, contentType, range.contentRange(length), opening.location());
+                partHeaders.add(header);
+                ranges.add(range);
+                contentLength += header.length + range.length();
+            }
+
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+            if (sources.isEmpty()) {
+                response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+                return;
+            }
+
+            byte[] closing = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+            contentLength += closing.length;
+
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType("multipart/mixed; boundary=" + boundary);
+            response.setContentLengthLong(contentLength);
+
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = new OutputStreamChannel(out);
+            for (int i = 0; i < sources.size(); i++) {
+                ByteRange range = ranges.get(i);
+                out.write(partHeaders.get(i));
+                sources.get(i).transferTo(range.start(), range.length(), target);
+            }
+            out.write(closing);
+            response.flushBuffer();
+        } finally {
+            for (AudioSource source : sources) {
+                source.close();
+            }
+        }
+    }
+
+    private static byte[] partHeader(String boundary, MediaType contentType, String contentRange, String location) {
+        StringBuilder header = new StringBuilder(CRLF + "--" + boundary + CRLF)
+                .append(HttpHeaders.CONTENT_TYPE).append(": ").append(contentType).append(CRLF)
+                .append(HttpHeaders.CONTENT_RANGE).append(": ").append(contentRange).append(CRLF);
+        if (location != null) {
+            header.append(HttpHeaders.CONTENT_LOCATION).append(": ").append(location).append(CRLF);
+        }
+        return header.append(CRLF).toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static WritableByteChannel target(OutputStream out, StreamTrace trace) {
+        WritableByteChannel channel = new OutputStreamChannel(out);
+        return trace == StreamTrace.NONE ? channel : new FirstByteChannel(channel, trace);
+    }
+
+    /**
+     * Parses a {@code Range} header against a file of the given length.
+     *
+     * @return the satisfiable ranges (empty → 416), or {@code null} when the
+     * header is malformed or abusive and the full file should be sent instead
+     */
+    static List<ByteRange> parseRanges(String header, long length) {
+        String value = header.trim();
+        if (!value.regionMatches(true, 0, "bytes=", 0, 6)) {
+            return null;
+        }
+
+        String[] specs = value.substring(6).split(",");
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+
+        List<ByteRange> ranges = new ArrayList<>(specs.length);
+        long requested = 0;
+
+        for (String raw : specs) {
+            String spec = raw.trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+
+            try {
+                if (dash == 0) {
+                    // Suffix range: bytes=-N → last N bytes
+                    long suffix = Long.parseLong(spec.substring(1));
+                    if (suffix < 0) {
+                        return null;
+                    }
+                    if (suffix > 0 && length > 0) {
+                        ranges.add(new ByteRange(Math.max(0, length - suffix), length - 1));
+                    }
+                    continue;
+                }
+
+                long first = Long.parseLong(spec.substring(0, dash));
+                String lastPart = spec.substring(dash + 1);
+                long last = lastPart.isEmpty() ? length - 1 : Long.parseLong(lastPart);
+
+                if (first < 0 || (!lastPart.isEmpty() && last < first)) {
+                    return null;
+                }
+                if (first < length) {
+                    ranges.add(new ByteRange(first, Math.min(last, length - 1)));
+                }
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+
+        for (ByteRange range : ranges) {
+            requested += range.length();
+        }
+        // Overlapping ranges asking for more than the file itself
+        if (ranges.size() > 1 && requested > length) {
+            return null;
+        }
+
+        return ranges;
+    }
+
+    /** Reports the first audio bytes written to the response, then just delegates. */
+    private static final class FirstByteChannel implements WritableByteChannel {
+
+        private final WritableByteChannel target;
+        private StreamTrace trace;
+
+        FirstByteChannel(WritableByteChannel target, StreamTrace trace) {
+            this.target = target;
+            this.trace = trace;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            int written = target.write(src);
+            if (trace != null && written > 0) {
+                trace.firstByte();
+                trace = null;
+            }
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return target.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            target.close();
+        }
+    }
+
+    /** A file for {@link #writeOpenings}, and the URL the client continues from. */
+    public record Opening(String location, Path file) {}
+
+    record ByteRange(long start, long end) {
+
+        long length() {
+            return end - start + 1;
+        }
+
+        String contentRange(long total) {
+            return "bytes " + start + "-" + end + "/" + total;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.musicstreaming.app.streaming;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Readable view of one audio file for the duration of a request –
+ * either a plain file channel or a slice of a memory-mapped hot track.
+ */
+public interface AudioSource extends Closeable {
+
+    long length();
+
+    /** Modification time in epoch millis, used for Last-Modified / If-Range. */
+    long lastModified();
+
+    /** Where the bytes come from – {@code "mapped"} or {@code "file"} – for metrics. */
+    String tier();
+
+    void transferTo(long position, long count, WritableByteChannel target) throws IOException;
+}
@@ -0,0 +1,375 @@
+package com.musicstreaming.app.streaming;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.musicstreaming.app.timing.CacheLookupEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Off-heap cache of the most requested audio files.
+ *
+ * A file is memory-mapped once it has been requested {@code admissionThreshold}
+ * times; mapped files are evicted least-recently-used once the byte budget is
+ * exceeded, and an evicted file starts counting again – otherwise two hot files
+ * that do not fit together would remap each other on every request. Every
+ * open {@link AudioSource} holds a reference on its mapping, so an evicted
+ * buffer is only unmapped after the last in-flight response is done.
+ */
+@Component
+public class MappedAudioCache {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedAudioCache.class);
+
+    /**
+     * Files with a request counter. Beyond this Caffeine drops the counters
+     * least likely to be needed again (rarely and not recently requested),
+     * so a flood of one-off files cannot reset the hotness of popular ones.
+     */
+    private static final int MAX_TRACKED_FILES = 10_000;
+
+    private final AudioCacheProperties props;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Path, MappedEntry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Cache<Path, AtomicInteger> requestCounts = Caffeine.newBuilder()
+            .maximumSize(MAX_TRACKED_FILES)
+            .build();
+    private long mappedBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public MappedAudioCache(AudioCacheProperties props, MeterRegistry registry) {
+        this.props = props;
+
+        this.hits = Counter.builder("audio.cache.requests").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("audio.cache.requests").tag("result", "miss").register(registry);
+        this.evictions = Counter.builder("audio.cache.evictions").register(registry);
+
+        Gauge.builder("audio.cache.size", this, MappedAudioCache::mappedBytes)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("audio.cache.entries", this, MappedAudioCache::size)
+                .register(registry);
+    }
+
+    /**
+     * Opens the file for streaming, from the mapped cache when it is hot.
+     * The caller must close the returned source.
+     */
+    public AudioSource open(Path file) throws IOException {
+        if (!props.enabled()) {
+            return new FileAudioSource(file);
+        }
+
+        Path key = file.toAbsolutePath().normalize();
+        BasicFileAttributes attrs = Files.readAttributes(key, BasicFileAttributes.class);
+
+        MappedEntry cached = lookup(key, attrs);
+        CacheLookupEvent.emit("audio", key, cached != null);
+        if (cached != null) {
+            hits.increment();
+            return new MappedAudioSource(cached);
+        }
+        misses.increment();
+
+        if (!shouldMap(key, attrs)) {
+            return new FileAudioSource(key, attrs.lastModifiedTime().toMillis());
+        }
+
+        MappedEntry mapped = map(key, attrs);
+        return new MappedAudioSource(admit(key, mapped));
+    }
+
+    public long mappedBytes() {
+        lock.lock();
+        try {
+            return mappedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the mapping for a file, e.g. once its song has been deleted.
+     */
+    public void evict(Path file) {
+        Path key = file.toAbsolutePath().normalize();
+        requestCounts.invalidate(key);
+
+        MappedEntry removed;
+        lock.lock();
+        try {
+            removed = entries.remove(key);
+            if (removed != null) {
+                mappedBytes -= removed.size;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (removed != null) {
+            removed.release();
+        }
+    }
+
+    @PreDestroy
+    public void clear() {
+        lock.lock();
+        try {
+            entries.values().forEach(MappedEntry::release);
+            entries.clear();
+            mappedBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+        requestCounts.invalidateAll();
+    }
+
+    // ================= INTERNALS =================
+
+    private MappedEntry lookup(Path key, BasicFileAttributes attrs) {
+        MappedEntry stale;
+        lock.lock();
+        try {
+            MappedEntry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.matches(attrs)) {
+                entry.retain();
+                return entry;
+            }
+            // File replaced on disk → drop the old mapping
+            entries.remove(key);
+            mappedBytes -= entry.size;
+            stale = entry;
+        } finally {
+            lock.unlock();
+        }
+        stale.release();
+        return null;
+    }
+
+    private boolean shouldMap(Path key, BasicFileAttributes attrs) {
+        long size = attrs.size();
+        if (size == 0
+                || size > props.maxFileSize().toBytes()
+                || size > props.maxSize().toBytes()
+                || size > Integer.MAX_VALUE) {
+            return false;
+        }
+
+        int count = requestCounts
+                .get(key, k -> new AtomicInteger())
+                .incrementAndGet();
+
+        return count >= props.admissionThreshold();
+    }
+
+    private static MappedEntry map(Path key, BasicFileAttributes attrs) throws IOException {
+        try (FileChannel channel = FileChannel.open(key, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, attrs.size());
+            return new MappedEntry(buffer, attrs);
+        }
+    }
+
+    /**
+     * Inserts a freshly mapped entry and returns the one the caller should
+     * use, already retained – ours, or a concurrent winner's.
+     */
+    private MappedEntry admit(Path key, MappedEntry mapped) {
+        MappedEntry winner = mapped;
+        List<MappedEntry> released = new ArrayList<>();
+
+        lock.lock();
+        try {
+            MappedEntry existing = entries.get(key);
+            if (existing != null && existing.matches(mapped)) {
+                existing.retain();
+                winner = existing;
+                released.add(mapped);
+            } else {
+                if (existing != null) {
+                    entries.remove(key);
+                    mappedBytes -= existing.size;
+                    released.add(existing);
+                }
+                mapped.retain();
+                entries.put(key, mapped);
+                mappedBytes += mapped.size;
+                evictOverBudget(released);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Unmapping happens outside the lock
+        released.forEach(MappedEntry::release);
+        return winner;
+    }
+
+    /** Must hold the lock. */
+    private void evictOverBudget(List<MappedEntry> released) {
+        long budget = props.maxSize().toBytes();
+
+        Iterator<Map.Entry<Path, MappedEntry>> it = entries.entrySet().iterator();
+        while (mappedBytes > budget && it.hasNext()) {
+            Map.Entry<Path, MappedEntry> eldest = it.next();
+            it.remove();
+            mappedBytes -= eldest.getValue().size;
+            evictions.increment();
+            released.add(eldest.getValue());
+            requestCounts.invalidate(eldest.getKey());
+        }
+    }
+
+    /**
+     * A mapped file plus a reference count. The cache itself holds one
+     * reference; each open {@link MappedAudioSource} holds another.
+     */
+    private static final class MappedEntry {
+
+        private final MappedByteBuffer buffer;
+        private final long size;
+        private final long lastModified;
+        private final AtomicInteger refs = new AtomicInteger(1);
+
+        private MappedEntry(MappedByteBuffer buffer, BasicFileAttributes attrs) {
+            this.buffer = buffer;
+            this.size = attrs.size();
+            this.lastModified = attrs.lastModifiedTime().toMillis();
+        }
+
+        boolean matches(BasicFileAttributes attrs) {
+            return size == attrs.size() && lastModified == attrs.lastModifiedTime().toMillis();
+        }
+
+        boolean matches(MappedEntry other) {
+            return size == other.size && lastModified == other.lastModified;
+        }
+
+        /** Only called under the cache lock while the entry is still cached. */
+        void retain() {
+            refs.incrementAndGet();
+        }
+
+        void release() {
+            if (refs.decrementAndGet() == 0) {
+                Unmapper.unmap(buffer);
+            }
+        }
+    }
+
+    private static final class MappedAudioSource implements AudioSource {
+
+        private final MappedEntry entry;
+        private boolean closed;
+
+        private MappedAudioSource(MappedEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public long length() {
+            return entry.size;
+        }
+
+        @Override
+        public long lastModified() {
+            return entry.lastModified;
+        }
+
+        @Override
+        public String tier() {
+            return "mapped";
+        }
+
+        @Override
+        public void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            ByteBuffer slice = entry.buffer.slice((int) position, (int) count);
+            while (slice.hasRemaining()) {
+                target.write(slice);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                entry.release();
+            }
+        }
+    }
+
+    /**
+     * Releases a mapping eagerly instead of waiting for GC. Falls back to
+     * letting GC reclaim it when the JDK does not expose a cleaner.
+     */
+    private static final class Unmapper {
+
+        private static final Object UNSAFE;
+        private static final Method INVOKE_CLEANER;
+
+        static {
+            Object unsafe = null;
+            Method invokeCleaner = null;
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Field field = unsafeClass.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                unsafe = field.get(null);
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                log.info("Eager unmapping unavailable, mapped audio is released by GC");
+            }
+            UNSAFE = unsafe;
+            INVOKE_CLEANER = invokeCleaner;
+        }
+
+        static void unmap(MappedByteBuffer buffer) {
+            if (INVOKE_CLEANER == null) {
+                return;
+            }
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } catch (ReflectiveOperationException ex) {
+                log.warn("Failed to unmap audio buffer", ex);
+            }
+        }
+    }
+}
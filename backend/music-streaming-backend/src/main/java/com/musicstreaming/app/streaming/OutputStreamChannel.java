@@ -0,0 +1,60 @@
+package com.musicstreaming.app.streaming;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Minimal {@link WritableByteChannel} over a response stream.
+ *
+ * Unlike {@code Channels.newChannel(OutputStream)}, which writes inside a
+ * {@code synchronized} block, this never holds a monitor while the socket
+ * write blocks – so a virtual thread streaming audio does not pin its
+ * carrier. One instance belongs to one response and is not thread-safe.
+ */
+final class OutputStreamChannel implements WritableByteChannel {
+
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private final OutputStream out;
+    private byte[] chunk;
+    private boolean open = true;
+
+    OutputStreamChannel(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        int length = src.remaining();
+
+        if (src.hasArray()) {
+            out.write(src.array(), src.arrayOffset() + src.position(), length);
+            src.position(src.limit());
+            return length;
+        }
+
+        // Direct / mapped buffers are copied out in chunks
+        if (chunk == null) {
+            chunk = new byte[CHUNK_SIZE];
+        }
+        while (src.hasRemaining()) {
+            int n = Math.min(src.remaining(), chunk.length);
+            src.get(chunk, 0, n);
+            out.write(chunk, 0, n);
+        }
+        return length;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        // The servlet container owns the stream
+        open = false;
+    }
+}
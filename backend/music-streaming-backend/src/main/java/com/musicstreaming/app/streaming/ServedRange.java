@@ -0,0 +1,10 @@
+package com.musicstreaming.app.streaming;
+
+/**
+ * What a response actually carried: the first byte offset and the number
+ * of file bytes sent (0 for 304/416).
+ */
+public record ServedRange(long offset, long bytes) {
+
+    public static final ServedRange NONE = new ServedRange(0, 0);
+}
@@ -0,0 +1,11 @@
+package com.musicstreaming.app.streaming;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "streaming.song-cache")
+public record SongCacheProperties(
+        long maxEntries,
+        Duration ttl
+) {}
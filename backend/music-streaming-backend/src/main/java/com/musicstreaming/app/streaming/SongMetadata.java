@@ -0,0 +1,29 @@
+package com.musicstreaming.app.streaming;
+
+import com.musicstreaming.app.model.Song;
+
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of the song columns the streaming path needs.
+ */
+public record SongMetadata(
+        UUID id,
+        String title,
+        String artist,
+        String genre,
+        String audioPath,
+        boolean active
+) {
+
+    public static SongMetadata from(Song song) {
+        return new SongMetadata(
+                song.getId(),
+                song.getTitle(),
+                song.getArtist(),
+                song.getGenre(),
+                song.getAudioPath(),
+                song.isActive()
+        );
+    }
+}
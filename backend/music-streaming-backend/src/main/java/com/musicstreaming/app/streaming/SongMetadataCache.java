@@ -0,0 +1,91 @@
+package com.musicstreaming.app.streaming;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.musicstreaming.app.datasource.DataSourceRouting;
+import com.musicstreaming.app.repository.SongRepository;
+import com.musicstreaming.app.timing.CacheLookupEvent;
+import com.musicstreaming.app.timing.DbLookupEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Bounded, TTL-based cache of {@link SongMetadata} keyed by song id, so repeated
+ * range requests for the same track do not hit the database.
+ */
+@Component
+public class SongMetadataCache {
+
+    private final SongRepository songRepository;
+    private final Cache<UUID, SongMetadata> cache;
+
+    public SongMetadataCache(
+            SongRepository songRepository,
+            SongCacheProperties props,
+            MeterRegistry registry
+    ) {
+        this.songRepository = songRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.maxEntries())
+                .expireAfterWrite(props.ttl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(registry, cache, "songMetadata");
+    }
+
+    public SongMetadata get(UUID songId) {
+        boolean[] loaded = {false};
+
+        // Caffeine's atomic get(): an evict() racing a miss waits for the load
+        // and then drops its result, so a song deactivated meanwhile is never
+        // re-cached as active. The loader is only the JDBC read (on JDK 21 it
+        // pins a virtual thread's carrier for that one round trip).
+        SongMetadata song = cache.get(songId, id -> {
+            loaded[0] = true;
+            return load(id);
+        });
+        CacheLookupEvent.emit("songMetadata", songId, !loaded[0]);
+
+        if (song == null) {
+            throw new EntityNotFoundException("Song not found");
+        }
+        return song;
+    }
+
+    public void evict(UUID songId) {
+        cache.invalidate(songId);
+    }
+
+    /**
+     * Evicts once the surrounding transaction commits, so a concurrent reader
+     * cannot re-cache the pre-commit row. Evicts immediately outside a transaction.
+     */
+    public void evictAfterCommit(UUID songId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(songId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(songId);
+            }
+        });
+    }
+
+    // Read from the primary: a lagging replica could re-cache a song that
+    // was just deactivated for the whole TTL
+    private SongMetadata load(UUID songId) {
+        return DbLookupEvent.time("Song", songId,
+                        () -> DataSourceRouting.primary(() -> songRepository.findById(songId)))
+                .map(SongMetadata::from)
+                .orElse(null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.musicstreaming.app.streaming;
+
+/**
+ * Progress of one {@link AudioRangeWriter} response, reported on the
+ * request thread so callers can time file access and delivery apart.
+ */
+public interface StreamTrace {
+
+    StreamTrace NONE = new StreamTrace() {};
+
+    /** The source is open and its length known; nothing written yet. */
+    default void opened(AudioSource source) {}
+
+    /** The first audio bytes went to the response (not sent for 304/416). */
+    default void firstByte() {}
+}
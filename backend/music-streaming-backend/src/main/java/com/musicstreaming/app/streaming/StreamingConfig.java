@@ -0,0 +1,12 @@
+package com.musicstreaming.app.streaming;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({
+        AudioCacheProperties.class,
+        SongCacheProperties.class
+})
+public class StreamingConfig {
+}
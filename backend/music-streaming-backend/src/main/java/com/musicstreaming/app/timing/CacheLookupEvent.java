@@ -0,0 +1,41 @@
+package com.musicstreaming.app.timing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("musicstreaming.CacheLookup")
+@Label("Cache Lookup")
+@Description("Hit or miss in one of the in-process caches on the request path")
+@Category({"Music Streaming", "Cache"})
+@StackTrace(false)
+public final class CacheLookupEvent extends jdk.jfr.Event {
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Key")
+    String key;
+
+    @Label("Hit")
+    boolean hit;
+
+    /**
+     * Emits the event when JFR is recording it and adds a
+     * {@code <cache>;desc="hit|miss"} Server-Timing entry.
+     *
+     * @param key {@code null} when the key must not be recorded (tokens)
+     */
+    public static void emit(String cache, Object key, boolean hit) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        if (event.isEnabled()) {
+            event.cache = cache;
+            event.key = key != null ? key.toString() : null;
+            event.hit = hit;
+            event.commit();
+        }
+        ServerTiming.mark(cache, hit ? "hit" : "miss");
+    }
+}
@@ -0,0 +1,43 @@
+package com.musicstreaming.app.timing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.function.Supplier;
+
+@Name("musicstreaming.DbLookup")
+@Label("Database Lookup")
+@Description("A database round trip made to serve a request")
+@Category({"Music Streaming", "Database"})
+@StackTrace(false)
+public final class DbLookupEvent extends jdk.jfr.Event {
+
+    @Label("Entity")
+    String entity;
+
+    @Label("Id")
+    String id;
+
+    /**
+     * Runs {@code query} as a JFR event and a {@code db} Server-Timing entry.
+     */
+    public static <T> T time(String entity, Object id, Supplier<T> query) {
+        DbLookupEvent event = new DbLookupEvent();
+        long start = System.nanoTime();
+        event.begin();
+        try {
+            return query.get();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.entity = entity;
+                event.id = id.toString();
+                event.commit();
+            }
+            ServerTiming.record("db", System.nanoTime() - start, entity);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.musicstreaming.app.timing;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("musicstreaming.RangeServed")
+@Label("Range Served")
+@Description("Writing the headers and audio bytes of one stream response")
+@Category({"Music Streaming", "Streaming"})
+@StackTrace(false)
+public final class RangeServedEvent extends jdk.jfr.Event {
+
+    @Label("Song")
+    String songId;
+
+    @Label("Source Tier")
+    String tier;
+
+    @Label("Offset")
+    @DataAmount
+    long offset;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    public void served(String songId, String tier, long offset, long bytes) {
+        this.songId = songId;
+        this.tier = tier;
+        this.offset = offset;
+        this.bytes = bytes;
+    }
+}
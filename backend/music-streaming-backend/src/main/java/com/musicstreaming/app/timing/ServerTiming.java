@@ -0,0 +1,65 @@
+package com.musicstreaming.app.timing;
+
+import java.util.Locale;
+
+/**
+ * Phases of the current request for its {@code Server-Timing} header,
+ * collected on the request thread. Exists only while
+ * {@link ServerTimingFilter} is installed ({@code server-timing.enabled});
+ * otherwise every call is a ThreadLocal miss.
+ *
+ * Only phases recorded before the body starts make it into the header.
+ */
+public final class ServerTiming {
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final StringBuilder header = new StringBuilder();
+
+    private ServerTiming() {}
+
+    static ServerTiming begin() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static void record(String name, long nanos) {
+        record(name, nanos, null);
+    }
+
+    public static void record(String name, long nanos, String description) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.append(name, description).append(";dur=")
+                    .append(String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0));
+        }
+    }
+
+    /** An entry without a duration, e.g. a cache hit. */
+    public static void mark(String name, String description) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.append(name, description);
+        }
+    }
+
+    private StringBuilder append(String name, String description) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name);
+        if (description != null) {
+            header.append(";desc=\"").append(description).append('"');
+        }
+        return header;
+    }
+
+    String header() {
+        return header.toString();
+    }
+}
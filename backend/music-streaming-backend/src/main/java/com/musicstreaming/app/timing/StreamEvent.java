@@ -0,0 +1,64 @@
+package com.musicstreaming.app.timing;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One stream request from controller entry to the last byte, with the time
+ * of each phase so a recording shows where a slow seek went.
+ */
+@Name("musicstreaming.Stream")
+@Label("Stream")
+@Description("A stream request, start to end, broken down by phase")
+@Category({"Music Streaming", "Streaming"})
+@StackTrace(false)
+public final class StreamEvent extends jdk.jfr.Event {
+
+    @Label("Song")
+    String songId;
+
+    @Label("Source Tier")
+    String tier;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Lookup")
+    @Timespan
+    long lookup;
+
+    @Label("Authorization")
+    @Timespan
+    long auth;
+
+    @Label("File I/O")
+    @Description("Opening the file or mapped slice and reading its size")
+    @Timespan
+    long io;
+
+    @Label("Write")
+    @Timespan
+    long write;
+
+    public void phase(String phase, long nanos) {
+        switch (phase) {
+            case "lookup" -> lookup = nanos;
+            case "auth" -> auth = nanos;
+            case "io" -> io = nanos;
+            case "write" -> write = nanos;
+            default -> { }
+        }
+    }
+
+    public void served(String songId, String tier, long bytes) {
+        this.songId = songId;
+        this.tier = tier;
+        this.bytes = bytes;
+    }
+}
@@ -0,0 +1,14 @@
+package com.musicstreaming.app.transcoding;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Produces one HLS rendition of a source file: a media playlist named
+ * {@code index.m3u8} plus {@code segment-NNNNN.ts} chunks in {@code outputDir}.
+ */
+public interface AudioEncoder {
+
+    void encode(Path source, Rendition rendition, Duration segmentDuration, Path outputDir) throws IOException;
+}
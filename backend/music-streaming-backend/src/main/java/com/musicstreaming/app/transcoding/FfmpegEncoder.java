@@ -0,0 +1,60 @@
+package com.musicstreaming.app.transcoding;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local command-line encoder: shells out to ffmpeg for AAC in MPEG-TS segments.
+ * Replace with another {@link AudioEncoder} bean to use a remote service.
+ */
+@Component
+public class FfmpegEncoder implements AudioEncoder {
+
+    private final TranscodingProperties props;
+
+    public FfmpegEncoder(TranscodingProperties props) {
+        this.props = props;
+    }
+
+    @Override
+    public void encode(Path source, Rendition rendition, Duration segmentDuration, Path outputDir) throws IOException {
+        List<String> command = List.of(
+                props.ffmpegPath(),
+                "-nostdin", "-y",
+                "-i", source.toString(),
+                "-vn",
+                "-c:a", "aac",
+                "-b:a", rendition.bitrateKbps() + "k",
+                "-f", "hls",
+                "-hls_time", String.valueOf(segmentDuration.toSeconds()),
+                "-hls_playlist_type", "vod",
+                "-hls_segment_filename", outputDir.resolve("segment-%05d.ts").toString(),
+                outputDir.resolve("index.m3u8").toString()
+        );
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(outputDir.resolve("encoder.log").toFile())
+                .start();
+
+        try {
+            if (!process.waitFor(props.timeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+                throw new IOException("Encoder timed out for " + source);
+            }
+        } catch (InterruptedException ex) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while encoding " + source, ex);
+        }
+
+        if (process.exitValue() != 0) {
+            throw new IOException("Encoder exited with " + process.exitValue() + " for " + source);
+        }
+    }
+}
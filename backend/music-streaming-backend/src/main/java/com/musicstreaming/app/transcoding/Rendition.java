@@ -0,0 +1,9 @@
+package com.musicstreaming.app.transcoding;
+
+/**
+ * One rung of the bitrate ladder, e.g. {@code 64k} at 64 kbit/s AAC.
+ */
+public record Rendition(
+        String name,
+        int bitrateKbps
+) {}
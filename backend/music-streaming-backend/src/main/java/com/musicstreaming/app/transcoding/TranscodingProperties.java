@@ -0,0 +1,16 @@
+package com.musicstreaming.app.transcoding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "transcoding")
+public record TranscodingProperties(
+        boolean enabled,
+        String ffmpegPath,
+        Duration segmentDuration,
+        Duration timeout,
+        int workers,
+        List<Rendition> renditions
+) {}
@@ -0,0 +1,235 @@
+package com.musicstreaming.app.transcoding;
+
+import com.musicstreaming.app.config.StorageProperties;
+import com.musicstreaming.app.repository.SongRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Ingest stage that turns an uploaded track into an HLS bitrate ladder:
+ * {@code <root>/hls/<songId>/<version>/master.m3u8} plus one folder per
+ * rendition, with {@code <root>/hls/<songId>/current} naming the version
+ * being served.
+ *
+ * A new version is encoded next to the served one and published by
+ * atomically replacing the pointer, so clients see either the old ladder or
+ * the full new one – never a gap – and a song without a ladder yet is a 404.
+ * The replaced version is kept for readers that resolved it just before the
+ * swap and removed on the next one.
+ */
+@Service
+public class TranscodingService {
+
+    private static final Logger log = LoggerFactory.getLogger(TranscodingService.class);
+
+    public static final String MASTER_PLAYLIST = "master.m3u8";
+    private static final String MEDIA_PLAYLIST = "index.m3u8";
+    private static final String POINTER = "current";
+    private static final Pattern MEDIA_FILE = Pattern.compile("index\\.m3u8|segment-\\d{5}\\.ts");
+    private static final Pattern VERSION = Pattern.compile("v-[0-9a-f-]{36}");
+
+    private static final int LOCK_STRIPES = 64;
+
+    public static final MediaType PLAYLIST_TYPE = MediaType.parseMediaType("application/vnd.apple.mpegurl");
+    public static final MediaType SEGMENT_TYPE = MediaType.parseMediaType("video/mp2t");
+
+    private final TranscodingProperties props;
+    private final AudioEncoder encoder;
+    private final SongRepository songRepository;
+    private final Path hlsDir;
+    private final ExecutorService workers;
+    // Serializes ladder builds of the same song, so one never removes a version another is encoding
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public TranscodingService(
+            TranscodingProperties props,
+            StorageProperties storage,
+            AudioEncoder encoder,
+            SongRepository songRepository
+    ) {
+        this.props = props;
+        this.encoder = encoder;
+        this.songRepository = songRepository;
+        this.hlsDir = storage.root().resolve("hls");
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, props.workers()), task -> {
+            Thread thread = new Thread(task, "transcoder-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues the ladder for a freshly uploaded song; no-op when disabled.
+     */
+    public void submit(UUID songId, Path source) {
+        if (!props.enabled()) {
+            return;
+        }
+        workers.execute(() -> transcode(songId, source));
+    }
+
+    void transcode(UUID songId, Path source) {
+        ReentrantLock lock = locks[Math.floorMod(songId.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            build(songId, source);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void build(UUID songId, Path source) {
+        Path songDir = hlsDir.resolve(songId.toString());
+        String version = "v-" + UUID.randomUUID();
+        Path work = songDir.resolve(version);
+
+        try {
+            StringBuilder master = new StringBuilder("#EXTM3U\n#EXT-X-VERSION:3\n");
+
+            for (Rendition rendition : props.renditions()) {
+                Path dir = Files.createDirectories(work.resolve(rendition.name()));
+                encoder.encode(source, rendition, props.segmentDuration(), dir);
+
+                // Declared bandwidth includes ~10% MPEG-TS container overhead
+                master.append("#EXT-X-STREAM-INF:BANDWIDTH=")
+                        .append(rendition.bitrateKbps() * 1100)
+                        .append(",CODECS=\"mp4a.40.2\"\n")
+                        .append(rendition.name()).append('/').append(MEDIA_PLAYLIST).append('\n');
+            }
+
+            Files.writeString(work.resolve(MASTER_PLAYLIST), master, StandardCharsets.UTF_8);
+
+            // Deleted while encoding: publishing now would leave a ladder nothing points at
+            if (!songRepository.existsById(songId)) {
+                log.info("Song {} was deleted while transcoding, dropping its ladder", songId);
+                deleteQuietly(songDir);
+                return;
+            }
+
+            String previous = currentVersion(songDir);
+            Path pointer = songDir.resolve(POINTER + ".tmp");
+            Files.writeString(pointer, version, StandardCharsets.US_ASCII);
+            Files.move(pointer, songDir.resolve(POINTER), StandardCopyOption.ATOMIC_MOVE);
+            removeVersionsExcept(songDir, version, previous);
+            log.info("Transcoded song {} into {} renditions", songId, props.renditions().size());
+
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Transcoding failed for song {}", songId, ex);
+            deleteQuietly(work);
+        }
+    }
+
+    /**
+     * @return the master playlist, or null while the ladder is not ready
+     */
+    public Path masterPlaylist(UUID songId) {
+        Path master = ladder(songId).resolve(MASTER_PLAYLIST);
+        return Files.isReadable(master) ? master : null;
+    }
+
+    /**
+     * @return a rendition playlist or segment, or null for unknown names
+     */
+    public Path mediaFile(UUID songId, String rendition, String file) {
+        boolean knownRendition = props.renditions().stream().anyMatch(r -> r.name().equals(rendition));
+        if (!knownRendition || !MEDIA_FILE.matcher(file).matches()) {
+            return null;
+        }
+        Path path = ladder(songId).resolve(rendition).resolve(file);
+        return Files.isReadable(path) ? path : null;
+    }
+
+    public static MediaType contentType(String file) {
+        return file.toLowerCase(Locale.ROOT).endsWith(".m3u8") ? PLAYLIST_TYPE : SEGMENT_TYPE;
+    }
+
+    public void delete(UUID songId) {
+        deleteQuietly(hlsDir.resolve(songId.toString()));
+    }
+
+    /**
+     * Songs that have a ladder folder on disk, published or not, so the
+     * storage sweep can drop those whose song is gone.
+     */
+    public List<UUID> ladders() throws IOException {
+        List<UUID> songIds = new ArrayList<>();
+        if (!Files.isDirectory(hlsDir)) {
+            return songIds;
+        }
+        try (Stream<Path> dirs = Files.list(hlsDir)) {
+            dirs.filter(Files::isDirectory).forEach(dir -> {
+                try {
+                    songIds.add(UUID.fromString(dir.getFileName().toString()));
+                } catch (IllegalArgumentException ignored) {
+                    // Not a ladder
+                }
+            });
+        }
+        return songIds;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /** The served version's folder; ladders written before versioning sit directly in the song folder. */
+    private Path ladder(UUID songId) {
+        Path songDir = hlsDir.resolve(songId.toString());
+        String version = currentVersion(songDir);
+        return version != null ? songDir.resolve(version) : songDir;
+    }
+
+    private static String currentVersion(Path songDir) {
+        try {
+            String version = Files.readString(songDir.resolve(POINTER), StandardCharsets.US_ASCII).trim();
+            return VERSION.matcher(version).matches() ? version : null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private static void removeVersionsExcept(Path songDir, String current, String previous) throws IOException {
+        try (Stream<Path> dirs = Files.list(songDir)) {
+            for (Path dir : dirs.toList()) {
+                String name = dir.getFileName().toString();
+                if (VERSION.matcher(name).matches() && !name.equals(current) && !name.equals(previous)) {
+                    deleteQuietly(dir);
+                }
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path dir) {
+        try {
+            FileSystemUtils.deleteRecursively(dir);
+        } catch (IOException ex) {
+            log.warn("Could not delete {}", dir, ex);
+        }
+    }
+}
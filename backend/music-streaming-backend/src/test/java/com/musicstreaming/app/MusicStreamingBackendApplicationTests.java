@@ -2,10 +2,17 @@ package com.musicstreaming.app;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
 @SpringBootTest
 class MusicStreamingBackendApplicationTests {
 
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) {
+		TestDatabase.registerApplication(registry);
+	}
+
 	@Test
 	void contextLoads() {
 	}
@@ -0,0 +1,62 @@
+package com.musicstreaming.app;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * One embedded Postgres per test JVM for tests that need real SQL (window
+ * functions, row-value comparisons, native updates), started on first use
+ * and stopped with the JVM. Tests share it, so they create their own rows
+ * and never assume an empty table.
+ */
+public final class TestDatabase {
+
+    private static EmbeddedPostgres postgres;
+
+    private TestDatabase() {}
+
+    public static synchronized EmbeddedPostgres postgres() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not start embedded Postgres", ex);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // JVM is exiting anyway
+                }
+            }));
+        }
+        return postgres;
+    }
+
+    /** Points {@code spring.datasource} at the shared database. */
+    public static void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres().getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    /**
+     * Same, plus a throw-away {@code storage.root} (the chart snapshot lives
+     * under it), for tests that start the whole application.
+     */
+    public static void registerApplication(DynamicPropertyRegistry registry) {
+        register(registry);
+        Path storage;
+        try {
+            storage = Files.createTempDirectory("music-it-");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        registry.add("storage.root", storage::toString);
+    }
+}
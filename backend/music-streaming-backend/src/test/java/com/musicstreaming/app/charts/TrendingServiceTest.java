@@ -0,0 +1,86 @@
+package com.musicstreaming.app.charts;
+
+import com.musicstreaming.app.dto.TrendingSong;
+import com.musicstreaming.app.streaming.SongMetadata;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TrendingServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final SongMetadata rock = song("Rock Song", "Band", "Rock");
+    private final SongMetadata jazz = song("Jazz Song", "Trio", "Jazz");
+
+    @Test
+    void ranksByPlaysAndFiltersByGenre() {
+        TrendingService service = newService();
+        for (int i = 0; i < 3; i++) {
+            service.recordPlay(UUID.randomUUID(), jazz);
+        }
+        service.recordPlay(UUID.randomUUID(), rock);
+
+        List<TrendingSong> top = service.top(Duration.ofHours(1), null, null, 10);
+        assertThat(top).extracting(TrendingSong::id).containsExactly(jazz.id(), rock.id());
+        assertThat(top.get(0).plays()).isEqualTo(3);
+
+        assertThat(service.top(Duration.ofDays(1), "rock", null, 10))
+                .extracting(TrendingSong::id)
+                .containsExactly(rock.id());
+    }
+
+    @Test
+    void sameListenerIsCountedOncePerReplayGap() {
+        TrendingService service = newService();
+        UUID user = UUID.randomUUID();
+
+        service.recordPlay(user, rock);
+        service.recordPlay(user, rock);
+
+        assertThat(service.top(Duration.ofMinutes(5), null, null, 10).get(0).plays()).isEqualTo(1);
+    }
+
+    @Test
+    void countersSurviveSnapshotAndRestore() {
+        TrendingService first = newService();
+        first.recordPlay(UUID.randomUUID(), rock);
+        first.snapshot();
+
+        TrendingService second = newService();
+        second.restore();
+
+        assertThat(second.top(Duration.ofHours(1), null, "band", 10))
+                .extracting(TrendingSong::title)
+                .containsExactly("Rock Song");
+    }
+
+    @Test
+    void rejectsWindowsOutsideOneMinuteToSevenDays() {
+        assertThatThrownBy(() -> newService().top(Duration.ofDays(8), null, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> newService().top(Duration.ofSeconds(30), null, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private TrendingService newService() {
+        return new TrendingService(new ChartsProperties(
+                dir.resolve("trending.bin"),
+                Duration.ofMinutes(5),
+                Duration.ofSeconds(30),
+                Duration.ZERO
+        ));
+    }
+
+    private static SongMetadata song(String title, String artist, String genre) {
+        return new SongMetadata(UUID.randomUUID(), title, artist, genre, "storage/audio/x.mp3", true);
+    }
+}
@@ -0,0 +1,60 @@
+package com.musicstreaming.app.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WebConfigTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void servesUploadsFromTheConfiguredRoot() throws Exception {
+        Files.createDirectories(root.resolve("covers"));
+        Files.writeString(root.resolve("covers").resolve("cover.jpg"), "jpeg");
+
+        MockHttpServletResponse response = get("/storage/covers/**", "cover.jpg");
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("jpeg");
+        assertThat(response.getHeader("ETag")).isNotNull();
+        assertThatThrownBy(() -> get("/storage/audio/**", "cover.jpg"))
+                .isInstanceOf(NoResourceFoundException.class);
+    }
+
+    private MockHttpServletResponse get(String pattern, String path) throws Exception {
+        MockServletContext servletContext = new MockServletContext();
+        GenericWebApplicationContext context = new GenericWebApplicationContext(servletContext);
+        context.refresh();
+        ResourceHandlerRegistry registry = new ResourceHandlerRegistry(context, servletContext);
+        new WebConfig(new StorageProperties(root, Duration.ofHours(1))).addResourceHandlers(registry);
+
+        SimpleUrlHandlerMapping mapping = ReflectionTestUtils.invokeMethod(registry, "getHandlerMapping");
+        ResourceHttpRequestHandler handler = (ResourceHttpRequestHandler) mapping.getUrlMap().get(pattern);
+        handler.setServletContext(servletContext);
+        handler.afterPropertiesSet();
+
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/storage/x/" + path);
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.handleRequest(request, response);
+        return response;
+    }
+}
@@ -0,0 +1,100 @@
+package com.musicstreaming.app.controller;
+
+import com.musicstreaming.app.dto.PlaylistBatchRequest;
+import com.musicstreaming.app.dto.PlaylistBatchResult;
+import com.musicstreaming.app.exception.GlobalExceptionHandler;
+import com.musicstreaming.app.service.PlaylistService;
+import com.musicstreaming.app.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PlaylistControllerTest {
+
+    private final PlaylistService playlistService = mock(PlaylistService.class);
+    private final UUID userId = UUID.randomUUID();
+    private final UUID playlistId = UUID.randomUUID();
+
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new PlaylistController(playlistService, mock(UserService.class)))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    @BeforeEach
+    void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(userId.toString(), null));
+    }
+
+    @AfterEach
+    void clear() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void batchReturnsWhatWasApplied() throws Exception {
+        when(playlistService.applyBatch(eq(playlistId), any(), eq(userId))).thenReturn(new PlaylistBatchResult(2, 1));
+
+        mockMvc.perform(batch("{\"add\":[\"%s\",\"%s\"],\"remove\":[\"%s\"]}"
+                        .formatted(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.added").value(2))
+                .andExpect(jsonPath("$.removed").value(1));
+    }
+
+    @Test
+    void batchOverTheIdCapIsRejectedBeforeTheService() throws Exception {
+        String ids = Stream.generate(() -> "\"" + UUID.randomUUID() + "\"")
+                .limit(5001)
+                .collect(Collectors.joining(","));
+
+        mockMvc.perform(batch("{\"add\":[" + ids + "]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("VALIDATION_ERROR"));
+        verify(playlistService, never()).applyBatch(any(), any(), any());
+    }
+
+    @Test
+    void batchWithMissingSongsIsABadRequest() throws Exception {
+        when(playlistService.applyBatch(any(), any(PlaylistBatchRequest.class), any()))
+                .thenThrow(new IllegalArgumentException("1 song(s) not found"));
+
+        mockMvc.perform(batch("{\"add\":[\"%s\"]}".formatted(UUID.randomUUID())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("1 song(s) not found"));
+    }
+
+    @Test
+    void batchOnSomeoneElsesPlaylistIsForbidden() throws Exception {
+        when(playlistService.applyBatch(any(), any(PlaylistBatchRequest.class), any()))
+                .thenThrow(new SecurityException("Not allowed to modify this playlist"));
+
+        mockMvc.perform(batch("{\"remove\":[\"%s\"]}".formatted(UUID.randomUUID())))
+                .andExpect(status().isForbidden());
+    }
+
+    private RequestBuilder batch(String json) {
+        return post("/api/playlists/{id}/songs/batch", playlistId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json);
+    }
+}
@@ -0,0 +1,53 @@
+package com.musicstreaming.app.covers;
+
+import com.musicstreaming.app.config.StorageProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoverVariantServiceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void negotiatesFormatFromAccept() {
+        assertThat(CoverVariantService.negotiate(null)).isEqualTo(MediaType.IMAGE_JPEG);
+        assertThat(CoverVariantService.negotiate("image/avif,image/webp,*/*;q=0.8")).isEqualTo(MediaType.IMAGE_JPEG);
+        assertThat(CoverVariantService.negotiate("image/png")).isEqualTo(MediaType.IMAGE_PNG);
+        assertThat(CoverVariantService.negotiate("image/jpeg;q=0.5, image/png")).isEqualTo(MediaType.IMAGE_PNG);
+    }
+
+    @Test
+    void rendersSmallVariantOnceAndFallsBackForUnreadableFiles() throws Exception {
+        CoverVariantService service = new CoverVariantService(
+                new CoverProperties(List.of(64, 256), 0.8f, 50_000_000),
+                new StorageProperties(dir, Duration.ofHours(1)));
+
+        Path original = dir.resolve("cover.png");
+        ImageIO.write(new BufferedImage(1200, 800, BufferedImage.TYPE_INT_ARGB), "png", original.toFile());
+
+        Path variant = service.variant(original, 50, MediaType.IMAGE_JPEG);
+
+        assertThat(variant).startsWith(dir.resolve("thumbnails"));
+        BufferedImage image = ImageIO.read(variant.toFile());
+        assertThat(image.getWidth()).isEqualTo(64);
+        assertThat(image.getHeight()).isEqualTo(43);
+        assertThat(service.variant(original, 64, MediaType.IMAGE_JPEG)).isEqualTo(variant);
+
+        service.deleteVariants(original);
+        assertThat(variant).doesNotExist();
+
+        Path heic = Files.write(dir.resolve("cover.heic"), new byte[] {1, 2, 3});
+        assertThat(service.variant(heic, 64, MediaType.IMAGE_JPEG)).isEqualTo(heic);
+    }
+}
@@ -0,0 +1,139 @@
+package com.musicstreaming.app.datasource;
+
+import com.musicstreaming.app.model.Role;
+import com.musicstreaming.app.security.jwt.JwtPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final ReplicaMonitor.Replica replica = new ReplicaMonitor.Replica("replica-0", mock(DataSource.class));
+    private final ReplicaMonitor monitor = new ReplicaMonitor(List.of(replica), 5_000);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ReplicaRoutingDataSource routing =
+            new ReplicaRoutingDataSource(mock(DataSource.class), monitor, Duration.ofMinutes(1), registry);
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+        monitor.shutdown();
+    }
+
+    private static void begin(boolean readOnly) {
+        TransactionSynchronizationManager.clear();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clear();
+    }
+
+    private static void signIn(UUID userId) {
+        JwtPrincipal principal = new JwtPrincipal(userId, "listener@example.com", Role.USER);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    @Test
+    void readOnlyTransactionsGoToAUsableReplica() {
+        replica.up = true;
+
+        begin(true);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-0");
+
+        begin(false);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+        TransactionSynchronizationManager.clear();
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+        assertThat(registry.get("datasource.routes").tag("target", "replica-0").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void downOrLaggingReplicaFallsBackToPrimary() throws Exception {
+        when(replica.dataSource.getConnection()).thenThrow(new SQLException("connection refused"));
+        replica.up = true;
+        monitor.checkAll();
+
+        begin(true);
+        assertThat(replica.up).isFalse();
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+        replica.up = true;
+        replica.lagMillis = 30_000;
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+        assertThat(monitor.health().getDetails()).containsKey("replica-0");
+    }
+
+    @Test
+    void replicaNotStreamingFromThePrimaryIsLagging() throws Exception {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(replica.dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(rs);
+        when(rs.wasNull()).thenReturn(true);
+
+        monitor.checkAll();
+
+        assertThat(replica.up).isTrue();
+        assertThat(monitor.usable(replica)).isFalse();
+
+        when(rs.wasNull()).thenReturn(false);
+        monitor.checkAll();
+        assertThat(monitor.usable(replica)).isTrue();
+    }
+
+    @Test
+    void writersReadTheirOwnWritesFromPrimary() {
+        replica.up = true;
+        UUID writer = UUID.randomUUID();
+
+        signIn(writer);
+        begin(false);
+        routing.determineCurrentLookupKey();
+        commit();
+
+        begin(true);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+        signIn(UUID.randomUUID());
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-0");
+    }
+
+    @Test
+    void pinnedReadsStayOnPrimary() {
+        replica.up = true;
+        begin(true);
+
+        Object key = DataSourceRouting.primary(routing::determineCurrentLookupKey);
+
+        assertThat(key).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+        assertThat(DataSourceRouting.primaryRequested()).isFalse();
+    }
+}
@@ -0,0 +1,109 @@
+package com.musicstreaming.app.datasource;
+
+import com.musicstreaming.app.model.Role;
+import com.musicstreaming.app.model.User;
+import com.musicstreaming.app.repository.UserRepository;
+import com.musicstreaming.app.security.jwt.JwtService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * One request that reads on a replica and then writes. The "replica" is the
+ * same embedded server reached through a role whose transactions are always
+ * read-only, so a write routed (or pinned) there fails the request.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReplicaRoutingIntegrationTest {
+
+    private static final EmbeddedPostgres postgres = start();
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    JwtService jwtService;
+
+    @Autowired
+    ReplicaMonitor replicas;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) throws IOException {
+        Path storage = Files.createTempDirectory("replica-it-");
+
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("replicas.enabled", () -> "true");
+        registry.add("replicas.check-interval", () -> "100ms");
+        registry.add("replicas.nodes[0].url", () -> postgres.getJdbcUrl("replica_ro", "postgres"));
+        registry.add("replicas.nodes[0].username", () -> "replica_ro");
+        registry.add("replicas.nodes[0].password", () -> "");
+        registry.add("storage.root", storage::toString);
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void readOnlyLookupThenWriteInOneRequest() throws Exception {
+        awaitReplica();
+        User user = userRepository.save(new User("replica-it@example.com", "{noop}secret", Role.USER));
+        String token = jwtService.generateToken(user);
+
+        // currentUser() is a read-only lookup (replica), createPlaylist an INSERT (primary)
+        mockMvc.perform(post("/api/playlists")
+                        .param("name", "Road trip")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Road trip"));
+    }
+
+    private void awaitReplica() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (replicas.next() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(replicas.next()).as("replica probed as usable").isNotNull();
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.start();
+            try (Connection connection = postgres.getPostgresDatabase().getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("CREATE ROLE replica_ro LOGIN");
+                statement.execute("GRANT USAGE ON SCHEMA public TO replica_ro");
+                statement.execute("ALTER DEFAULT PRIVILEGES IN SCHEMA public GRANT SELECT ON TABLES TO replica_ro");
+                statement.execute("ALTER ROLE replica_ro SET default_transaction_read_only = on");
+            }
+            return postgres;
+        } catch (Exception ex) {
+            throw new IllegalStateException("Could not start embedded Postgres", ex);
+        }
+    }
+}
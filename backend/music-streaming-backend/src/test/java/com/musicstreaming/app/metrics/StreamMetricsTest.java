@@ -0,0 +1,100 @@
+package com.musicstreaming.app.metrics;
+
+import com.musicstreaming.app.streaming.AudioCacheProperties;
+import com.musicstreaming.app.streaming.AudioRangeWriter;
+import com.musicstreaming.app.streaming.MappedAudioCache;
+import com.musicstreaming.app.streaming.ServedRange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamMetricsTest {
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StreamMetrics metrics = new StreamMetrics(registry);
+
+    // Caching disabled → every request reads through the file tier
+    private final AudioRangeWriter writer = new AudioRangeWriter(new MappedAudioCache(
+            new AudioCacheProperties(false, DataSize.ofMegabytes(1), DataSize.ofMegabytes(1), 2),
+            new SimpleMeterRegistry()
+    ));
+
+    private ServedRange stream(Path file, String range) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/stream/songs/x");
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        StreamTimer timer = metrics.start(UUID.randomUUID());
+        ServedRange served = null;
+        try {
+            timer.lap(StreamTimer.LOOKUP);
+            timer.lap(StreamTimer.AUTH);
+            served = writer.write(file, MediaType.APPLICATION_OCTET_STREAM, CacheControl.noCache(),
+                    request, new MockHttpServletResponse(), timer);
+        } finally {
+            timer.finish(served);
+        }
+        return served;
+    }
+
+    @Test
+    void everyPhaseBytesAndFirstByteAreRecorded() throws Exception {
+        Path file = Files.write(dir.resolve("track.mp3"), new byte[1000]);
+
+        stream(file, null);
+        stream(file, "bytes=100-199");
+
+        for (String phase : new String[] {StreamTimer.AUTH, StreamTimer.LOOKUP, StreamTimer.IO, StreamTimer.WRITE}) {
+            assertThat(registry.get("stream.phase").tag("phase", phase).timer().count()).as(phase).isEqualTo(2);
+        }
+        assertThat(registry.get("stream.ttfb").timer().count()).isEqualTo(2);
+        assertThat(registry.get("stream.bytes.served").tag("tier", "file").counter().count()).isEqualTo(1100);
+        assertThat(registry.get("stream.range.size").summary().max()).isEqualTo(1000);
+        assertThat(registry.get("stream.active").tag("tier", "file").gauge().value()).isZero();
+    }
+
+    @Test
+    void unsatisfiableRangeHasNoFirstByte() throws Exception {
+        Path file = Files.write(dir.resolve("track.mp3"), new byte[1000]);
+
+        assertThat(stream(file, "bytes=5000-").bytes()).isZero();
+
+        assertThat(registry.get("stream.ttfb").timer().count()).isZero();
+        assertThat(registry.get("stream.phase").tag("phase", StreamTimer.WRITE).timer().count()).isEqualTo(1);
+        assertThat(registry.get("stream.range.size").summary().count()).isZero();
+    }
+
+    @Test
+    void statementsAreCountedPerRoute() {
+        QueryCountInterceptor interceptor = new QueryCountInterceptor(registry);
+        QueryCountInspector inspector = new QueryCountInspector();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/playlists");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/playlists");
+
+        inspector.inspect("select 1");
+        interceptor.preHandle(request, new MockHttpServletResponse(), this);
+        inspector.inspect("select 1");
+        inspector.inspect("select 2");
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), this, null);
+        inspector.inspect("select 3");
+
+        assertThat(registry.get("http.server.queries").tag("uri", "/api/playlists").summary().totalAmount())
+                .isEqualTo(2);
+    }
+}
@@ -0,0 +1,65 @@
+package com.musicstreaming.app.model;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.configuration.TypesafeConfigurator;
+import com.musicstreaming.app.repository.SongRepository;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.annotations.Cache;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every region Hibernate will ask for must be in application.conf, or
+ * startup fails (missing_cache_strategy: fail).
+ */
+class CacheRegionsTest {
+
+    private final Config config = ConfigFactory.load();
+
+    @Test
+    void everyRegionIsConfiguredAndBounded() throws Exception {
+        Set<String> regions = new TreeSet<>();
+        for (Class<?> entity : new Class<?>[]{Song.class, User.class, PlaylistSong.class}) {
+            regions.add(entity.getAnnotation(Cache.class).region());
+        }
+        regions.add(Playlist.class.getDeclaredField("songs").getAnnotation(Cache.class).region());
+        for (Method method : SongRepository.class.getDeclaredMethods()) {
+            QueryHints hints = method.getAnnotation(QueryHints.class);
+            if (hints == null) {
+                continue;
+            }
+            for (QueryHint hint : hints.value()) {
+                if (hint.name().equals(HibernateHints.HINT_CACHE_REGION)) {
+                    regions.add(hint.value());
+                }
+            }
+        }
+        regions.add("default-query-results-region");
+
+        assertThat(regions).contains("songs", "users", "playlist-songs", "song-finders");
+        for (String region : regions) {
+            Optional<CaffeineConfiguration<Object, Object>> cache = TypesafeConfigurator.from(config, region);
+            assertThat(cache).as(region).isPresent();
+            assertThat(cache.get().getMaximumSize()).as(region).isPresent();
+        }
+    }
+
+    @Test
+    void updateTimestampsNeverExpire() {
+        Optional<CaffeineConfiguration<Object, Object>> timestamps =
+                TypesafeConfigurator.from(config, "default-update-timestamps-region");
+
+        assertThat(timestamps).isPresent();
+        assertThat(timestamps.get().getExpireAfterWrite()).isEmpty();
+    }
+}
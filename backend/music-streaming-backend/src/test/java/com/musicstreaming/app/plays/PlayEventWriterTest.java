@@ -0,0 +1,64 @@
+package com.musicstreaming.app.plays;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class PlayEventWriterTest {
+
+    // Scheduling disabled so the test drives flushes itself
+    private final PlayEventProperties props =
+            new PlayEventProperties(false, 3, Duration.ofSeconds(1), Duration.ofSeconds(30), 100);
+
+    @Test
+    void fullQueueDropsInsteadOfBlocking() {
+        PlayEventQueue queue = new PlayEventQueue(enabled(), new SimpleMeterRegistry());
+        UUID user = UUID.randomUUID();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(queue.record(new PlayEvent(user, UUID.randomUUID(), 0, 10, 0))).isTrue();
+        }
+        assertThat(queue.record(new PlayEvent(user, UUID.randomUUID(), 0, 10, 0))).isFalse();
+        assertThat(queue.size()).isEqualTo(3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rangeRequestsOfOneListenAreWrittenAsOneSession() {
+        PlayEventQueue queue = new PlayEventQueue(enabled(), new SimpleMeterRegistry());
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        PlayEventWriter writer = new PlayEventWriter(queue, jdbc, props, new SimpleMeterRegistry());
+
+        UUID user = UUID.randomUUID();
+        UUID song = UUID.randomUUID();
+        long now = System.currentTimeMillis();
+        queue.record(new PlayEvent(user, song, 0, 1000, now));
+        queue.record(new PlayEvent(user, song, 1000, 1000, now + 5_000));
+
+        // Still open: nothing written yet
+        writer.flush(false);
+        verify(jdbc, never()).batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+
+        writer.flush(true);
+        verify(jdbc).batchUpdate(anyString(), argThat((Collection<?> rows) -> rows.size() == 1), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private PlayEventProperties enabled() {
+        return new PlayEventProperties(true, props.queueCapacity(), props.flushInterval(), props.sessionGap(), props.batchSize());
+    }
+}
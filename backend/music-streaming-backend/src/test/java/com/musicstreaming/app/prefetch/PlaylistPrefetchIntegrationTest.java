@@ -0,0 +1,141 @@
+package com.musicstreaming.app.prefetch;
+
+import com.musicstreaming.app.TestDatabase;
+import com.musicstreaming.app.model.Playlist;
+import com.musicstreaming.app.model.PlaylistSong;
+import com.musicstreaming.app.model.Role;
+import com.musicstreaming.app.model.Song;
+import com.musicstreaming.app.model.User;
+import com.musicstreaming.app.repository.PlaylistRepository;
+import com.musicstreaming.app.repository.PlaylistSongRepository;
+import com.musicstreaming.app.repository.SongRepository;
+import com.musicstreaming.app.repository.UserRepository;
+import com.musicstreaming.app.security.jwt.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The playlist hint and {@code /next} against real rows, with a song that
+ * is in the playlist twice: A B A C.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PlaylistPrefetchIntegrationTest {
+
+    @TempDir
+    Path dir;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    SongRepository songRepository;
+
+    @Autowired
+    PlaylistRepository playlistRepository;
+
+    @Autowired
+    PlaylistSongRepository playlistSongRepository;
+
+    @Autowired
+    JwtService jwtService;
+
+    private String token;
+    private Playlist playlist;
+    private Song a;
+    private Song b;
+    private Song c;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        TestDatabase.registerApplication(registry);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        User owner = userRepository.save(new User(UUID.randomUUID() + "@example.com", "secret", Role.USER));
+        token = jwtService.generateToken(owner);
+
+        a = song("A");
+        b = song("B");
+        c = song("C");
+        playlist = playlistRepository.save(new Playlist("Repeat", owner));
+        int position = 0;
+        for (Song song : new Song[]{a, b, a, c}) {
+            playlistSongRepository.save(new PlaylistSong(playlist, song, position += 1024));
+        }
+    }
+
+    @Test
+    void playlistPageListsEveryEntryWithItsPosition() throws Exception {
+        mockMvc.perform(get("/api/playlists/{id}/songs", playlist.getId()).header(HttpHeaders.AUTHORIZATION, bearer()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].position").value(contains(1024, 2048, 3072, 4096)))
+                .andExpect(jsonPath("$.items[2].songId").value(a.getId().toString()));
+    }
+
+    @Test
+    void nextFollowsTheEntryNotTheFirstOccurrenceOfItsSong() throws Exception {
+        // After the second A comes C – anchoring on the first A would give B
+        String body = mockMvc.perform(get("/api/stream/playlists/{id}/next", playlist.getId())
+                        .param("after", "3072")
+                        .param("count", "1")
+                        .header(HttpHeaders.AUTHORIZATION, bearer()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.ISO_8859_1);
+
+        assertThat(body).contains("Content-Location: /api/stream/songs/" + c.getId()
+                + "?playlist=" + playlist.getId() + "&position=4096");
+        assertThat(body).doesNotContain(b.getId().toString());
+    }
+
+    @Test
+    void streamingWithTheHintStillServesTheTrack() throws Exception {
+        mockMvc.perform(get("/api/stream/songs/{id}", a.getId())
+                        .param("playlist", playlist.getId().toString())
+                        .param("position", "3072")
+                        .header(HttpHeaders.AUTHORIZATION, bearer()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void nextOfSomeoneElsesPlaylistIsNotFound() throws Exception {
+        User stranger = userRepository.save(new User(UUID.randomUUID() + "@example.com", "secret", Role.USER));
+
+        mockMvc.perform(get("/api/stream/playlists/{id}/next", playlist.getId())
+                        .param("after", "0")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.generateToken(stranger)))
+                .andExpect(status().isNotFound());
+    }
+
+    private String bearer() {
+        return "Bearer " + token;
+    }
+
+    private Song song(String title) throws Exception {
+        Path file = Files.write(dir.resolve(title + ".mp3"), title.repeat(1000).getBytes(StandardCharsets.US_ASCII));
+        return songRepository.save(new Song(title, "Artist", null, null, 180, file.toString(), null));
+    }
+}
@@ -0,0 +1,121 @@
+package com.musicstreaming.app.prefetch;
+
+import com.musicstreaming.app.dto.PlaylistSongRow;
+import com.musicstreaming.app.repository.PlaylistRepository;
+import com.musicstreaming.app.repository.PlaylistSongRepository;
+import com.musicstreaming.app.streaming.SongMetadata;
+import com.musicstreaming.app.streaming.SongMetadataCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Limit;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PlaylistPrefetcherTest {
+
+    @TempDir
+    Path dir;
+
+    private final UUID owner = UUID.randomUUID();
+    private final UUID playlist = UUID.randomUUID();
+    private final int current = 1024;
+    private final UUID next = UUID.randomUUID();
+
+    private final PlaylistRepository playlists = mock(PlaylistRepository.class);
+    private final PlaylistSongRepository entries = mock(PlaylistSongRepository.class);
+    private final SongMetadataCache songs = mock(SongMetadataCache.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService workers = Executors.newSingleThreadExecutor();
+
+    private final PlaylistPrefetcher prefetcher = new PlaylistPrefetcher(
+            playlists,
+            entries,
+            songs,
+            new PrefetchProperties(true, 1, 10, DataSize.ofKilobytes(4), 2, Duration.ofMinutes(1)),
+            registry,
+            workers
+    );
+
+    private void playlistOf(Path nextFile) {
+        when(playlists.existsByIdAndOwnerId(playlist, owner)).thenReturn(true);
+        when(entries.findRowsAfter(eq(playlist), eq(current), any(Limit.class))).thenReturn(List.of(
+                new PlaylistSongRow(playlist, 2048, next, "Next", "Artist", null, null, 180,
+                        nextFile.toString(), null, null)
+        ));
+        when(songs.get(next)).thenReturn(new SongMetadata(next, "Next", "Artist", null, nextFile.toString(), true));
+    }
+
+    @Test
+    void streamingATrackWarmsTheNextOneOnce() throws Exception {
+        Path nextFile = Files.write(dir.resolve("next.mp3"), new byte[10_000]);
+        playlistOf(nextFile);
+
+        prefetcher.onStream(owner, playlist, current);
+        prefetcher.onStream(owner, playlist, current);
+        workers.shutdown();
+        assertThat(workers.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        verify(songs, times(1)).get(next);
+        assertThat(registry.get("prefetch.warmed").counter().count()).isEqualTo(4096);
+        assertThat(registry.get("prefetch.tasks").tag("result", "repeated").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void anotherUsersHintDoesNotSuppressTheOwners() throws Exception {
+        Path nextFile = Files.write(dir.resolve("next.mp3"), new byte[10_000]);
+        playlistOf(nextFile);
+
+        prefetcher.onStream(UUID.randomUUID(), playlist, current);
+        prefetcher.onStream(owner, playlist, current);
+        workers.shutdown();
+        assertThat(workers.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(registry.get("prefetch.tasks").tag("result", "submitted").counter().count()).isEqualTo(2);
+        assertThat(registry.get("prefetch.warmed").counter().count()).isEqualTo(4096);
+    }
+
+    @Test
+    void otherUsersPlaylistsAreNotFollowed() throws Exception {
+        Path nextFile = Files.write(dir.resolve("next.mp3"), new byte[10]);
+        playlistOf(nextFile);
+
+        assertThatThrownBy(() -> prefetcher.nextTracks(playlist, UUID.randomUUID(), current, 3))
+                .isInstanceOf(EntityNotFoundException.class);
+        verify(entries, never()).findRowsAfter(any(), anyInt(), any());
+    }
+
+    @Test
+    void nextTracksAreCappedAndReadAheadStopsAtTheEnd() throws Exception {
+        Path nextFile = Files.write(dir.resolve("next.mp3"), new byte[10]);
+        playlistOf(nextFile);
+
+        assertThat(prefetcher.nextTracks(playlist, owner, current, 50))
+                .extracting(track -> track.song().id(), PlaylistPrefetcher.Track::position)
+                .containsExactly(tuple(next, 2048));
+        verify(entries).findRowsAfter(playlist, current, Limit.of(2));
+
+        assertThat(PlaylistPrefetcher.readAhead(nextFile, 4096)).isEqualTo(10);
+    }
+}
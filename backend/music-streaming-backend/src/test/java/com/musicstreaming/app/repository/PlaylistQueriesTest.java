@@ -0,0 +1,172 @@
+package com.musicstreaming.app.repository;
+
+import com.musicstreaming.app.TestDatabase;
+import com.musicstreaming.app.dto.PlaylistPage;
+import com.musicstreaming.app.dto.PlaylistResponse;
+import com.musicstreaming.app.dto.PlaylistSongPage;
+import com.musicstreaming.app.dto.PlaylistSongRow;
+import com.musicstreaming.app.dto.SongResponse;
+import com.musicstreaming.app.model.Playlist;
+import com.musicstreaming.app.model.PlaylistSong;
+import com.musicstreaming.app.model.Role;
+import com.musicstreaming.app.model.Song;
+import com.musicstreaming.app.model.User;
+import com.musicstreaming.app.service.PlaylistService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * The flat projection queries behind the playlist listings, run against
+ * Postgres (window function, row-value comparison) with a fresh owner per
+ * test.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PlaylistQueriesTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 1, 9, 0);
+
+    @Autowired
+    PlaylistRepository playlistRepository;
+
+    @Autowired
+    PlaylistSongRepository playlistSongRepository;
+
+    @Autowired
+    SongRepository songRepository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    private PlaylistService service;
+    private User owner;
+    private Song first;
+    private Song second;
+    private Song third;
+    private Playlist oldest;
+    private Playlist middle;
+    private Playlist newest;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry);
+    }
+
+    @BeforeEach
+    void setUp() {
+        service = new PlaylistService(playlistRepository, playlistSongRepository, songRepository);
+        owner = entityManager.persist(new User(UUID.randomUUID() + "@example.com", "secret", Role.USER));
+
+        first = entityManager.persist(new Song("First", "Artist A", "Album", "Rock", 181, "storage/audio/1.mp3", "storage/covers/1.png"));
+        second = entityManager.persist(new Song("Second", "Artist B", null, null, 182, "storage/audio/2.mp3", null));
+        third = entityManager.persist(new Song("Third", "Artist C", null, null, 183, "storage/audio/3.mp3", null));
+
+        oldest = playlist("Oldest", DAY, first, second, first);
+        middle = playlist("Middle", DAY.plusDays(1), third, second, first, third);
+        newest = playlist("Newest", DAY.plusDays(2));
+        entityManager.clear();
+    }
+
+    @Test
+    void pageListsPlaylistsNewestFirstWithTheirFirstSongsCapped() {
+        PlaylistPage page = service.getPlaylistPage(owner.getId(), null, 2, 2);
+
+        assertThat(page.items())
+                .extracting(PlaylistResponse::name, PlaylistResponse::songCount)
+                .containsExactly(tuple("Newest", 0L), tuple("Middle", 4L));
+        assertThat(page.items().get(0).songs()).isEmpty();
+        assertThat(page.items().get(1).songs())
+                .extracting(SongResponse::id)
+                .containsExactly(third.getId(), second.getId());
+        assertThat(page.nextCursor()).isNotNull();
+
+        PlaylistPage rest = service.getPlaylistPage(owner.getId(), page.nextCursor(), 2, 2);
+
+        assertThat(rest.items()).extracting(PlaylistResponse::name).containsExactly("Oldest");
+        assertThat(rest.items().get(0).songCount()).isEqualTo(3);
+        assertThat(rest.items().get(0).songs())
+                .extracting(SongResponse::id)
+                .containsExactly(first.getId(), second.getId());
+        assertThat(rest.nextCursor()).isNull();
+    }
+
+    @Test
+    void songLimitZeroKeepsCountsButSkipsSongs() {
+        PlaylistPage page = service.getPlaylistPage(owner.getId(), null, 10, 0);
+
+        assertThat(page.items()).extracting(PlaylistResponse::songCount).containsExactly(0L, 4L, 3L);
+        assertThat(page.items()).allSatisfy(item -> assertThat(item.songs()).isEmpty());
+    }
+
+    @Test
+    void firstRowsCapsEachPlaylistAndGroupsByPlaylist() {
+        List<PlaylistSongRow> rows = playlistSongRepository.findFirstRows(
+                List.of(oldest.getId(), middle.getId(), newest.getId()), 3);
+
+        List<UUID> playlistOrder = List.of(oldest.getId(), middle.getId()).stream()
+                .sorted(Comparator.comparing(UUID::toString))
+                .toList();
+        assertThat(rows).hasSize(6);
+        assertThat(rows).extracting(PlaylistSongRow::playlistId)
+                .containsExactly(
+                        playlistOrder.get(0), playlistOrder.get(0), playlistOrder.get(0),
+                        playlistOrder.get(1), playlistOrder.get(1), playlistOrder.get(1));
+        assertThat(rows).filteredOn(row -> row.playlistId().equals(middle.getId()))
+                .extracting(PlaylistSongRow::position, PlaylistSongRow::songId)
+                .containsExactly(tuple(1024, third.getId()), tuple(2048, second.getId()), tuple(3072, first.getId()));
+    }
+
+    @Test
+    void rowsCarryEverySongColumn() {
+        PlaylistSongPage page = service.getPlaylistSongs(oldest.getId(), owner.getId(), null, 1);
+
+        PlaylistSongRow row = page.items().get(0);
+        assertThat(row.playlistId()).isEqualTo(oldest.getId());
+        assertThat(row.position()).isEqualTo(1024);
+        assertThat(row.song()).isEqualTo(new SongResponse(first.getId(), "First", "Artist A", "Album", "Rock", 181,
+                "storage/audio/1.mp3", "storage/covers/1.png", row.createdAt()));
+        assertThat(row.createdAt()).isNotNull();
+        assertThat(page.nextCursor()).isEqualTo("1024");
+    }
+
+    @Test
+    void rowsAfterAPositionFollowTheEntriesNotTheSongs() {
+        // The second "First" entry comes after "Second"
+        PlaylistSongPage page = service.getPlaylistSongs(oldest.getId(), owner.getId(), "1024", 10);
+
+        assertThat(page.items())
+                .extracting(PlaylistSongRow::position, PlaylistSongRow::songId)
+                .containsExactly(tuple(2048, second.getId()), tuple(3072, first.getId()));
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    private Playlist playlist(String name, LocalDateTime createdAt, Song... songs) {
+        Playlist playlist = entityManager.persist(new Playlist(name, owner));
+        for (int i = 0; i < songs.length; i++) {
+            entityManager.persist(new PlaylistSong(playlist, songs[i], (i + 1) * 1024));
+        }
+        entityManager.flush();
+
+        // created_at is stamped on insert and not updatable through the entity
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE playlists SET created_at = :createdAt WHERE id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", playlist.getId())
+                .executeUpdate();
+        return playlist;
+    }
+}
@@ -0,0 +1,117 @@
+package com.musicstreaming.app.search;
+
+import com.musicstreaming.app.dto.SongResponse;
+import com.musicstreaming.app.repository.SongRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SongSearchIndexTest {
+
+    private final SongSearchIndex index = new SongSearchIndex(null);
+
+    private SongResponse kannaana;
+    private SongResponse varalaaru;
+    private SongResponse rockSong;
+
+    private static SongResponse song(String title, String artist, String album, String genre) {
+        return new SongResponse(UUID.randomUUID(), title, artist, album, genre, 200,
+                "storage/audio/x.mp3", null, LocalDateTime.now());
+    }
+
+    @BeforeEach
+    void setUp() {
+        kannaana = song("Kannaana Kanney", "D. Imman", "Viswasam", "Melody");
+        varalaaru = song("Oru Pere Varalaaru", "Anirudh Ravichander", "Jana Nayagan", "Mass");
+        rockSong = song("Varalaaru Remix", "DJ Rocky", "Club Nights", "Rock");
+        index.add(kannaana);
+        index.add(varalaaru);
+        index.add(rockSong);
+    }
+
+    @Test
+    void prefixMatchesAsYouType() {
+        assertThat(index.search("kann", 10)).containsExactly(kannaana);
+    }
+
+    @Test
+    void allTermsMustMatchAndTitleOutranksOtherFields() {
+        assertThat(index.search("varalaaru", 10)).hasSize(2);
+        assertThat(index.search("varalaaru anirudh", 10)).containsExactly(varalaaru);
+        assertThat(index.search("rock", 10).get(0)).isEqualTo(rockSong);
+    }
+
+    @Test
+    void toleratesTypos() {
+        assertThat(index.search("varalaru", 10)).contains(varalaaru, rockSong);
+        assertThat(index.search("imman viswasm", 10)).containsExactly(kannaana);
+    }
+
+    @Test
+    void removedSongsDisappear() {
+        index.remove(kannaana.id());
+
+        assertThat(index.search("kannaana", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void catalogLoadDoesNotUndoLiveUpdates() {
+        SongRepository songRepository = mock(SongRepository.class);
+        SongSearchIndex loading = new SongSearchIndex(songRepository);
+        SongResponse renamed = new SongResponse(varalaaru.id(), "Oru Pere Varalaaru (Live)", "Anirudh Ravichander",
+                "Jana Nayagan", "Mass", 200, "storage/audio/x.mp3", null, varalaaru.createdAt());
+
+        // The page was read before the delete and the rename committed
+        when(songRepository.findActivePage(any())).thenAnswer(call -> {
+            loading.remove(kannaana.id());
+            loading.add(renamed);
+            return List.of(kannaana, varalaaru, rockSong);
+        });
+
+        loading.rebuildFromDatabase();
+
+        assertThat(loading.search("kannaana", 10)).isEmpty();
+        assertThat(loading.search("live", 10)).containsExactly(renamed);
+        assertThat(loading.size()).isEqualTo(2);
+
+        // Once loaded, updates apply as usual
+        loading.add(kannaana);
+        assertThat(loading.search("kannaana", 10)).containsExactly(kannaana);
+    }
+
+    @Test
+    void shortPrefixReachesFrequentTermsPastRareOnes() {
+        // 100 rare words that sort before "love"
+        for (int i = 0; i < 100; i++) {
+            index.add(song("Loa" + i, "Someone", "Rare", "Pop"));
+        }
+        SongResponse love = song("Love Story", "Someone", "Hits", "Pop");
+        SongResponse loveAgain = song("Love Again", "Someone", "Hits", "Pop");
+        index.add(love);
+        index.add(loveAgain);
+
+        assertThat(index.search("lo", 200)).contains(love, loveAgain);
+        assertThat(index.search("lo story", 10)).containsExactly(love);
+    }
+
+    @Test
+    void singleTermStopsAtTheLimitInRankOrder() {
+        SongResponse byArtist = song("Something Else", "Kannan", "Other", "Pop");
+        SongResponse exactTitle = song("Kann", "Someone", "Other", "Pop");
+        index.add(byArtist);
+        index.add(exactTitle);
+
+        // exact title, then prefix title, then prefix artist
+        assertThat(index.search("kann", 10)).containsExactly(exactTitle, kannaana, byArtist);
+        assertThat(index.search("kann", 2)).containsExactly(exactTitle, kannaana);
+    }
+}
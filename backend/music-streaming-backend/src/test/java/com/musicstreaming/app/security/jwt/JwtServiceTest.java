@@ -0,0 +1,63 @@
+package com.musicstreaming.app.security.jwt;
+
+import com.musicstreaming.app.model.Role;
+import com.musicstreaming.app.model.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "THIS_IS_A_32_CHAR_SECRET_KEY_FOR_JWT!!";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private JwtService service(long expirationMillis) {
+        return new JwtService(new JwtProperties(SECRET, expirationMillis, 100), registry);
+    }
+
+    private static User user(Role role) {
+        User user = new User("listener@example.com", "encoded", role);
+        ReflectionTestUtils.setField(user, "id", UUID.randomUUID());
+        return user;
+    }
+
+    @Test
+    void repeatTokenIsServedFromCache() {
+        JwtService jwtService = service(60_000);
+        User user = user(Role.USER);
+        String token = jwtService.generateToken(user);
+
+        JwtPrincipal first = jwtService.authenticate(token);
+        JwtPrincipal second = jwtService.authenticate(token);
+
+        assertThat(first).isEqualTo(new JwtPrincipal(user.getId(), user.getEmail(), Role.USER));
+        assertThat(second).isSameAs(first);
+        assertThat(registry.get("cache.gets").tag("cache", "jwtTokens").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        JwtService jwtService = service(-1_000);
+        String token = jwtService.generateToken(user(Role.ADMIN));
+
+        assertThatThrownBy(() -> jwtService.authenticate(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        JwtService jwtService = service(60_000);
+        String token = jwtService.generateToken(user(Role.USER));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> jwtService.authenticate(tampered)).isInstanceOf(JwtException.class);
+    }
+}
@@ -0,0 +1,76 @@
+package com.musicstreaming.app.service;
+
+import com.musicstreaming.app.charts.TrendingService;
+import com.musicstreaming.app.model.Role;
+import com.musicstreaming.app.model.Song;
+import com.musicstreaming.app.repository.SongRepository;
+import com.musicstreaming.app.search.SongSearchIndex;
+import com.musicstreaming.app.streaming.SongCacheProperties;
+import com.musicstreaming.app.streaming.SongMetadataCache;
+import com.musicstreaming.app.transcoding.TranscodingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Deactivating or deleting a song must reach the streaming metadata cache,
+ * or users keep streaming it for the cache TTL.
+ */
+class AdminSongServiceTest {
+
+    private final SongRepository songRepository = mock(SongRepository.class);
+    private final SongMetadataCache songMetadataCache = new SongMetadataCache(
+            songRepository, new SongCacheProperties(100, Duration.ofHours(1)), new SimpleMeterRegistry());
+    private final StreamingAccessService access = new StreamingAccessService();
+
+    private final AdminSongService service = new AdminSongService(
+            songRepository,
+            mock(FileStorageService.class),
+            songMetadataCache,
+            mock(SongSearchIndex.class),
+            mock(StorageGarbageCollector.class),
+            mock(TranscodingService.class),
+            mock(TrendingService.class)
+    );
+
+    private final UUID songId = UUID.randomUUID();
+    private Song song;
+
+    @BeforeEach
+    void setUp() {
+        song = new Song("Title", "Artist", null, null, 180, "storage/audio/x.mp3", null);
+        ReflectionTestUtils.setField(song, "id", songId);
+        when(songRepository.findById(songId)).thenReturn(Optional.of(song));
+    }
+
+    @Test
+    void deactivatedSongIsNoLongerStreamableByUsers() {
+        assertThat(access.userHasAccess(songMetadataCache.get(songId), Role.USER)).isTrue();
+
+        service.deactivateSong(songId);
+
+        assertThat(access.userHasAccess(songMetadataCache.get(songId), Role.USER)).isFalse();
+        assertThat(access.userHasAccess(songMetadataCache.get(songId), Role.ADMIN)).isTrue();
+    }
+
+    @Test
+    void deletedSongLeavesTheCache() {
+        songMetadataCache.get(songId);
+
+        service.deleteSong(songId);
+        when(songRepository.findById(songId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> songMetadataCache.get(songId)).isInstanceOf(EntityNotFoundException.class);
+    }
+}
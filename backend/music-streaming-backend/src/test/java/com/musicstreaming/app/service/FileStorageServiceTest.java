@@ -0,0 +1,84 @@
+package com.musicstreaming.app.service;
+
+import com.musicstreaming.app.config.StorageProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileStorageServiceTest {
+
+    @TempDir
+    Path root;
+
+    private FileStorageService storage;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storage = new FileStorageService(new StorageProperties(root, Duration.ofHours(1)));
+    }
+
+    @Test
+    void storesUnderShardedContentAddressWithHashAndSize() throws Exception {
+        byte[] bytes = "not really an mp3".getBytes();
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+
+        StoredFile stored = storage.storeAudio(new MockMultipartFile("audio", "Track.MP3", "audio/mpeg", bytes));
+
+        Path expected = root.resolve("audio").resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4))
+                .resolve(hash + ".mp3");
+        assertThat(stored.sha256()).isEqualTo(hash);
+        assertThat(stored.size()).isEqualTo(bytes.length);
+        assertThat(Path.of(stored.path())).isEqualTo(expected);
+        assertThat(Files.readAllBytes(expected)).isEqualTo(bytes);
+        assertThat(storage.resolveAudio(hash + ".mp3")).isEqualTo(expected.toAbsolutePath().normalize());
+        assertThat(root.resolve("tmp")).isEmptyDirectory();
+    }
+
+    @Test
+    void failedUploadLeavesNoTempFileOrBlob() {
+        MockMultipartFile broken = new MockMultipartFile("audio", "track.mp3", "audio/mpeg", new byte[0]) {
+            @Override
+            public InputStream getInputStream() {
+                // A few bytes arrive, then the client goes away
+                return new SequenceInputStream(new ByteArrayInputStream(new byte[4096]), new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("connection reset");
+                    }
+                });
+            }
+        };
+
+        assertThatThrownBy(() -> storage.storeAudio(broken)).isInstanceOf(IOException.class);
+
+        assertThat(root.resolve("tmp")).isEmptyDirectory();
+        assertThat(root.resolve("audio")).isEmptyDirectory();
+    }
+
+    @Test
+    void unsafeExtensionFallsBackToDefault() throws Exception {
+        StoredFile stored = storage.storeCover(new MockMultipartFile("cover", "../../x.p/ng", "image/png", new byte[] {1}));
+
+        assertThat(stored.path()).endsWith(stored.sha256() + ".png");
+        assertThat(Path.of(stored.path())).startsWith(root.resolve("covers"));
+    }
+
+    @Test
+    void resolveRefusesToEscapeTheStorageFolder() {
+        assertThat(storage.resolveAudio("../covers/secret.png")).isNull();
+    }
+}
@@ -0,0 +1,47 @@
+package com.musicstreaming.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsThroughAnUrlSafeToken() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000), UUID.randomUUID());
+
+        String token = cursor.encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(KeysetCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void tamperedCursorsAreRejected() {
+        String valid = new KeysetCursor(LocalDateTime.of(2024, 5, 1, 12, 0), UUID.randomUUID()).encode();
+
+        for (String tampered : new String[]{
+                "not a cursor!",
+                valid.substring(0, 10),
+                encode("2024-05-01T12:00"),
+                encode("2024-05-01T12:00|not-a-uuid"),
+                encode("yesterday|" + UUID.randomUUID()),
+                ""
+        }) {
+            assertThatThrownBy(() -> KeysetCursor.decode(tampered))
+                    .as(tampered)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid cursor");
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,141 @@
+package com.musicstreaming.app.service;
+
+import com.musicstreaming.app.TestDatabase;
+import com.musicstreaming.app.model.Playlist;
+import com.musicstreaming.app.model.PlaylistSong;
+import com.musicstreaming.app.model.Role;
+import com.musicstreaming.app.model.Song;
+import com.musicstreaming.app.model.User;
+import com.musicstreaming.app.repository.PlaylistRepository;
+import com.musicstreaming.app.repository.PlaylistSongRepository;
+import com.musicstreaming.app.repository.SongRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Everyday playlist edits against Postgres, which enforces the unique
+ * (playlist, position) constraint, with the second-level cache on: an edit
+ * must leave other playlists' cached entries alone. Each step commits, as
+ * the cache only takes entities once their insert has committed.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PlaylistEditsTest {
+
+    private static final int STEP = PlaylistService.STEP;
+
+    @Autowired
+    PlaylistRepository playlistRepository;
+
+    @Autowired
+    PlaylistSongRepository playlistSongRepository;
+
+    @Autowired
+    SongRepository songRepository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private TransactionTemplate tx;
+    private PlaylistService service;
+    private User owner;
+    private Song a;
+    private Song b;
+    private Playlist edited;
+    private UUID bystander;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry);
+    }
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        service = new PlaylistService(playlistRepository, playlistSongRepository, songRepository);
+
+        tx.executeWithoutResult(status -> {
+            owner = entityManager.persist(new User(UUID.randomUUID() + "@example.com", "secret", Role.USER));
+            a = entityManager.persist(new Song("A", "Artist", null, null, 180, "storage/audio/a.mp3", null));
+            b = entityManager.persist(new Song("B", "Artist", null, null, 180, "storage/audio/b.mp3", null));
+            edited = playlist(a, b, a);
+            bystander = entries(playlist(b)).get(0).getId();
+        });
+
+        assertThat(cache().contains(PlaylistSong.class, bystander)).isTrue();
+    }
+
+    @Test
+    void reorderRewritesPositionsInPlace() {
+        tx.executeWithoutResult(status ->
+                service.reorder(edited.getId(), List.of(b.getId(), a.getId(), a.getId()), owner.getId()));
+
+        assertThat(committedEntries())
+                .extracting(entry -> entry.getSong().getId(), PlaylistSong::getPosition)
+                .containsExactly(
+                        tuple(b.getId(), STEP),
+                        tuple(a.getId(), 2 * STEP),
+                        tuple(a.getId(), 3 * STEP));
+        assertThat(cache().contains(PlaylistSong.class, bystander)).isTrue();
+    }
+
+    @Test
+    void moveAndRemoveKeepOtherPlaylistsCached() {
+        tx.executeWithoutResult(status -> service.moveSong(edited.getId(), b.getId(), 0, owner.getId()));
+
+        assertThat(committedEntries()).extracting(entry -> entry.getSong().getId())
+                .containsExactly(b.getId(), a.getId(), a.getId());
+
+        tx.executeWithoutResult(status -> service.removeSongFromPlaylist(edited.getId(), a.getId(), owner.getId()));
+
+        assertThat(committedEntries()).extracting(entry -> entry.getSong().getId())
+                .containsExactly(b.getId());
+        assertThat(cache().contains(PlaylistSong.class, bystander)).isTrue();
+    }
+
+    private Playlist playlist(Song... songs) {
+        Playlist playlist = entityManager.persist(new Playlist("Mix", owner));
+        for (int i = 0; i < songs.length; i++) {
+            entityManager.persist(new PlaylistSong(playlist, songs[i], (i + 1) * STEP));
+        }
+        return playlist;
+    }
+
+    private List<PlaylistSong> committedEntries() {
+        return tx.execute(status -> entries(edited));
+    }
+
+    private List<PlaylistSong> entries(Playlist playlist) {
+        entityManager.flush();
+        return playlistSongRepository.findByPlaylistOrderByPositionAsc(playlist);
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.getCache();
+    }
+}
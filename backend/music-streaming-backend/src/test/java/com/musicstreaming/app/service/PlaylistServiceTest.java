@@ -0,0 +1,228 @@
+package com.musicstreaming.app.service;
+
+import com.musicstreaming.app.dto.PlaylistBatchRequest;
+import com.musicstreaming.app.dto.PlaylistBatchResult;
+import com.musicstreaming.app.model.Playlist;
+import com.musicstreaming.app.model.PlaylistSong;
+import com.musicstreaming.app.model.Role;
+import com.musicstreaming.app.model.Song;
+import com.musicstreaming.app.model.User;
+import com.musicstreaming.app.repository.PlaylistRepository;
+import com.musicstreaming.app.repository.PlaylistSongRepository;
+import com.musicstreaming.app.repository.SongRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PlaylistServiceTest {
+
+    private static final int STEP = PlaylistService.STEP;
+
+    private final PlaylistRepository playlistRepository = mock(PlaylistRepository.class);
+    private final PlaylistSongRepository playlistSongRepository = mock(PlaylistSongRepository.class);
+    private final SongRepository songRepository = mock(SongRepository.class);
+    private final PlaylistService service =
+            new PlaylistService(playlistRepository, playlistSongRepository, songRepository);
+
+    private final UUID ownerId = UUID.randomUUID();
+    private final UUID playlistId = UUID.randomUUID();
+    private Playlist playlist;
+
+    @BeforeEach
+    void setUp() {
+        User owner = new User("owner@example.com", "secret", Role.USER);
+        ReflectionTestUtils.setField(owner, "id", ownerId);
+        playlist = new Playlist("Mix", owner);
+        ReflectionTestUtils.setField(playlist, "id", playlistId);
+
+        when(playlistRepository.findByIdForUpdate(playlistId)).thenReturn(Optional.of(playlist));
+        when(songRepository.existsById(any())).thenReturn(true);
+        when(songRepository.getReferenceById(any())).thenAnswer(call -> song(call.getArgument(0)));
+    }
+
+    @Test
+    void insertTakesTheMidpointOfItsNeighbours() {
+        when(playlistSongRepository.findTwoPositionsFrom(eq(playlistId), any(), eq(0)))
+                .thenReturn(List.of(STEP, 2 * STEP));
+
+        service.addSongToPlaylist(playlistId, UUID.randomUUID(), 1, ownerId);
+
+        assertThat(savedPosition()).isEqualTo(STEP + STEP / 2);
+        verify(playlistSongRepository, never()).negatePositions(any());
+    }
+
+    @Test
+    void insertAtTheTopHalvesTheFirstPosition() {
+        when(playlistSongRepository.findTwoPositionsFrom(eq(playlistId), any(), eq(0)))
+                .thenReturn(List.of(STEP, 2 * STEP));
+
+        service.addSongToPlaylist(playlistId, UUID.randomUUID(), 0, ownerId);
+
+        assertThat(savedPosition()).isEqualTo(STEP / 2);
+    }
+
+    @Test
+    void exhaustedGapRenumbersAndRetries() {
+        // No integer left between 1024 and 1025 until the renumbering spreads them out
+        when(playlistSongRepository.findTwoPositionsFrom(eq(playlistId), any(), eq(0)))
+                .thenReturn(List.of(STEP, STEP + 1), List.of(STEP, 2 * STEP));
+
+        service.addSongToPlaylist(playlistId, UUID.randomUUID(), 1, ownerId);
+
+        InOrder order = inOrder(playlistSongRepository);
+        order.verify(playlistSongRepository).negatePositions(playlistId);
+        order.verify(playlistSongRepository).spreadPositions(playlistId, STEP);
+        order.verify(playlistSongRepository).save(any(PlaylistSong.class));
+        assertThat(savedPosition()).isEqualTo(STEP + STEP / 2);
+    }
+
+    @Test
+    void appendPastTheLastPositionRenumbersFirst() {
+        when(playlistSongRepository.findMaxPosition(playlistId)).thenReturn(Integer.MAX_VALUE - 1, 3 * STEP);
+
+        service.addSongToPlaylist(playlistId, UUID.randomUUID(), null, ownerId);
+
+        verify(playlistSongRepository).spreadPositions(playlistId, STEP);
+        assertThat(savedPosition()).isEqualTo(4 * STEP);
+    }
+
+    @Test
+    void reorderParksThenRewritesAndKeepsDuplicatesInOrder() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        PlaylistSong firstA = entry(a, STEP);
+        PlaylistSong onlyB = entry(b, 2 * STEP);
+        PlaylistSong secondA = entry(a, 3 * STEP);
+        List<PlaylistSong> entries = new ArrayList<>(List.of(firstA, onlyB, secondA));
+
+        when(playlistSongRepository.findByPlaylistOrderByPositionAsc(playlist)).thenReturn(entries);
+        // Every entry is below zero when the parked positions are flushed
+        doAnswer(call -> {
+            assertThat(entries).allSatisfy(entry -> assertThat(entry.getPosition()).isNegative());
+            return null;
+        }).when(playlistSongRepository).flush();
+
+        service.reorder(playlistId, List.of(b, a, a), ownerId);
+
+        verify(playlistSongRepository).flush();
+        verify(playlistSongRepository, never()).negatePositions(any());
+        assertThat(onlyB.getPosition()).isEqualTo(STEP);
+        assertThat(firstA.getPosition()).isEqualTo(2 * STEP);
+        assertThat(secondA.getPosition()).isEqualTo(3 * STEP);
+    }
+
+    @Test
+    void reorderRejectsADifferentSetOfSongs() {
+        UUID a = UUID.randomUUID();
+        when(playlistSongRepository.findByPlaylistOrderByPositionAsc(playlist))
+                .thenReturn(List.of(entry(a, STEP), entry(a, 2 * STEP)));
+
+        assertThatThrownBy(() -> service.reorder(playlistId, List.of(a), ownerId))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(playlistSongRepository, never()).negatePositions(any());
+    }
+
+    @Test
+    void reorderRejectsNullIdsBeforeTouchingThePlaylist() {
+        List<UUID> withNull = Arrays.asList(UUID.randomUUID(), null);
+
+        assertThatThrownBy(() -> service.reorder(playlistId, withNull, ownerId))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.reorder(playlistId, null, ownerId))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(playlistRepository, never()).findByIdForUpdate(any());
+    }
+
+    @Test
+    void batchValidatesEverySongInOneQueryAndAppendsDuplicatesInOrder() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID gone = UUID.randomUUID();
+        when(songRepository.findExistingIds(any())).thenReturn(Set.of(a, b));
+        when(playlistSongRepository.findMaxPosition(playlistId)).thenReturn(3 * STEP);
+        PlaylistSong goneEntry = entry(gone, STEP);
+        when(playlistSongRepository.findByPlaylistIdAndSongIdIn(playlistId, Set.of(gone))).thenReturn(List.of(goneEntry));
+
+        PlaylistBatchResult result = service.applyBatch(
+                playlistId, new PlaylistBatchRequest(List.of(a, b, a), List.of(gone)), ownerId);
+
+        assertThat(result).isEqualTo(new PlaylistBatchResult(3, 1));
+        verify(songRepository).findExistingIds(Set.of(a, b));
+        verify(playlistSongRepository).deleteAll(List.of(goneEntry));
+        assertThat(savedRows())
+                .extracting(entry -> entry.getSong().getId(), PlaylistSong::getPosition)
+                .containsExactly(tuple(a, 4 * STEP), tuple(b, 5 * STEP), tuple(a, 6 * STEP));
+    }
+
+    @Test
+    void batchWithAMissingSongChangesNothing() {
+        UUID found = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        when(songRepository.findExistingIds(any())).thenReturn(Set.of(found));
+
+        // The duplicate of the missing id is reported once
+        assertThatThrownBy(() -> service.applyBatch(playlistId,
+                new PlaylistBatchRequest(List.of(found, missing, missing), List.of(found)), ownerId))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("1 song(s) not found");
+        verify(playlistSongRepository, never()).deleteAll(anyIterable());
+        verify(playlistSongRepository, never()).saveAll(anyIterable());
+    }
+
+    @Test
+    void batchOnSomeoneElsesPlaylistIsRefusedBeforeAnyLookup() {
+        UUID song = UUID.randomUUID();
+
+        assertThatThrownBy(() -> service.applyBatch(playlistId,
+                new PlaylistBatchRequest(List.of(song), List.of(song)), UUID.randomUUID()))
+                .isInstanceOf(SecurityException.class);
+        verify(songRepository, never()).findExistingIds(any());
+        verify(playlistSongRepository, never()).deleteAll(anyIterable());
+        verify(playlistSongRepository, never()).saveAll(anyIterable());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PlaylistSong> savedRows() {
+        ArgumentCaptor<List<PlaylistSong>> saved = ArgumentCaptor.forClass(List.class);
+        verify(playlistSongRepository).saveAll(saved.capture());
+        return saved.getValue();
+    }
+
+    private int savedPosition() {
+        ArgumentCaptor<PlaylistSong> saved = ArgumentCaptor.forClass(PlaylistSong.class);
+        verify(playlistSongRepository).save(saved.capture());
+        return saved.getValue().getPosition();
+    }
+
+    private PlaylistSong entry(UUID songId, int position) {
+        return new PlaylistSong(playlist, song(songId), position);
+    }
+
+    private static Song song(UUID id) {
+        Song song = new Song("Title", "Artist", null, null, 180, "storage/audio/x.mp3", null);
+        ReflectionTestUtils.setField(song, "id", id);
+        return song;
+    }
+}
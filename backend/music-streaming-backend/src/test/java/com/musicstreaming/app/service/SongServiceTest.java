@@ -0,0 +1,119 @@
+package com.musicstreaming.app.service;
+
+import com.musicstreaming.app.TestDatabase;
+import com.musicstreaming.app.dto.SongPage;
+import com.musicstreaming.app.dto.SongResponse;
+import com.musicstreaming.app.model.Song;
+import com.musicstreaming.app.repository.SongRepository;
+import com.musicstreaming.app.search.SongSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Keyset paging against Postgres, which does the row-value comparison.
+ * The songs here are dated 1900 so they sort after anything other tests
+ * left in the shared database, and paging starts from a cursor just above
+ * them.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SongServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final String ABOVE = new KeysetCursor(DAY.plusYears(1), new UUID(0, 0)).encode();
+
+    @Autowired
+    SongRepository songRepository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    private SongService service;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry);
+    }
+
+    @BeforeEach
+    void setUp() {
+        service = new SongService(songRepository, mock(SongSearchIndex.class));
+    }
+
+    @Test
+    void pagesThroughTiedTimestampsWithoutSkipsOrRepeats() {
+        UUID newest = song(DAY.plusHours(1), true);
+        // Same created_at: only the id orders them (Postgres compares uuids bytewise)
+        List<UUID> tied = Stream.of(song(DAY, true), song(DAY, true), song(DAY, true))
+                .sorted(Comparator.comparing(UUID::toString).reversed())
+                .toList();
+        UUID inactive = song(DAY, false);
+        UUID oldest = song(DAY.minusHours(1), true);
+
+        List<UUID> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = ABOVE;
+        do {
+            SongPage page = service.getActiveSongs(cursor, 2);
+            page.items().stream().map(SongResponse::id).forEach(seen::add);
+            pageSizes.add(page.items().size());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(pageSizes).containsExactly(2, 2, 1);
+        assertThat(seen).containsExactly(newest, tied.get(0), tied.get(1), tied.get(2), oldest)
+                .doesNotContain(inactive);
+    }
+
+    @Test
+    void exactlyFullLastPageHasNoCursor() {
+        song(DAY, true);
+        song(DAY, true);
+
+        SongPage page = service.getActiveSongs(ABOVE, 2);
+
+        assertThat(page.items()).hasSize(2);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void invalidCursorIsABadRequest() {
+        assertThatThrownBy(() -> service.getActiveSongs("%%%", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    private UUID song(LocalDateTime createdAt, boolean active) {
+        Song song = new Song("Title", "Artist", null, null, 180, "storage/audio/x.mp3", null);
+        if (!active) {
+            song.deactivate();
+        }
+        UUID id = songRepository.saveAndFlush(song).getId();
+
+        // created_at is stamped on insert and not updatable through the entity
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE songs SET created_at = :createdAt WHERE id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", id)
+                .executeUpdate();
+        entityManager.clear();
+        return id;
+    }
+}
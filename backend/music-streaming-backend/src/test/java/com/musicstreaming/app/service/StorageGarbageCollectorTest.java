@@ -0,0 +1,153 @@
+package com.musicstreaming.app.service;
+
+import com.musicstreaming.app.config.StorageProperties;
+import com.musicstreaming.app.covers.CoverVariantService;
+import com.musicstreaming.app.model.Song;
+import com.musicstreaming.app.repository.SongRepository;
+import com.musicstreaming.app.streaming.MappedAudioCache;
+import com.musicstreaming.app.transcoding.TranscodingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StorageGarbageCollectorTest {
+
+    private static final Duration GRACE = Duration.ofHours(1);
+
+    @TempDir
+    Path root;
+
+    private final SongRepository songRepository = mock(SongRepository.class);
+    private final CoverVariantService coverVariantService = mock(CoverVariantService.class);
+    private final MappedAudioCache mappedAudioCache = mock(MappedAudioCache.class);
+    private final TranscodingService transcodingService = mock(TranscodingService.class);
+
+    private FileStorageService storage;
+    private StorageGarbageCollector gc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StorageProperties props = new StorageProperties(root, GRACE);
+        storage = new FileStorageService(props);
+        gc = new StorageGarbageCollector(songRepository, storage, coverVariantService, mappedAudioCache, transcodingService, props);
+    }
+
+    @Test
+    void sharedBlobSurvivesDeletingOneOfItsSongs() throws Exception {
+        String path = storeAudio("shared", "a.mp3");
+        age(path);
+        // The other song still points at the blob
+        when(songRepository.existsByAudioPath(path)).thenReturn(true);
+
+        gc.release(song(path));
+
+        assertThat(Path.of(path)).exists();
+        verify(mappedAudioCache, never()).evict(any());
+    }
+
+    @Test
+    void releasingTheLastReferenceDeletesBlobAndMapping() throws Exception {
+        String path = storeAudio("alone", "a.mp3");
+        age(path);
+
+        gc.release(song(path));
+
+        assertThat(Path.of(path)).doesNotExist();
+        verify(mappedAudioCache).evict(Path.of(path));
+    }
+
+    @Test
+    void blobInsideTheGraceWindowIsKeptUntilItAges() throws Exception {
+        String path = storeAudio("fresh", "a.mp3");
+
+        gc.release(song(path));
+        gc.sweep();
+        assertThat(Path.of(path)).exists();
+
+        age(path);
+        gc.sweep();
+        assertThat(Path.of(path)).doesNotExist();
+    }
+
+    @Test
+    void sweepReclaimsOrphansOnly() throws Exception {
+        String orphan = storeAudio("orphan", "a.mp3");
+        String kept = storeAudio("kept", "b.mp3");
+        age(orphan);
+        age(kept);
+        when(songRepository.existsByAudioPath(kept)).thenReturn(true);
+
+        gc.sweep();
+
+        assertThat(Path.of(orphan)).doesNotExist();
+        assertThat(Path.of(kept)).exists();
+        verify(mappedAudioCache).evict(Path.of(orphan));
+        verify(coverVariantService).deleteVariants(Path.of(orphan));
+    }
+
+    @Test
+    void reuploadRefreshesGraceAndKeysOnHashAlone() throws Exception {
+        String first = storeAudio("same bytes", "a.mp3");
+        age(first);
+
+        // Same content under another extension reuses the blob and restarts its grace
+        String second = storeAudio("same bytes", "a.ogg");
+        assertThat(second).isEqualTo(first);
+
+        gc.sweep();
+        assertThat(Path.of(first)).exists();
+    }
+
+    @Test
+    void referenceAddedAfterTheFirstCheckStopsTheDelete() throws Exception {
+        String path = storeAudio("late", "a.mp3");
+        age(path);
+        // Unreferenced at the first look, referenced by the re-check under the blob lock
+        when(songRepository.existsByAudioPath(path)).thenReturn(false, true);
+
+        gc.sweep();
+
+        assertThat(Path.of(path)).exists();
+    }
+
+    @Test
+    void sweepDropsLaddersOfDeletedSongs() throws Exception {
+        UUID live = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        when(transcodingService.ladders()).thenReturn(List.of(live, deleted));
+        when(songRepository.existsById(live)).thenReturn(true);
+
+        gc.sweep();
+
+        verify(transcodingService).delete(deleted);
+        verify(transcodingService, never()).delete(live);
+    }
+
+    private String storeAudio(String content, String name) throws Exception {
+        return storage.storeAudio(new MockMultipartFile("audio", name, "audio/mpeg", content.getBytes())).path();
+    }
+
+    private static void age(String path) throws Exception {
+        Files.setLastModifiedTime(Path.of(path), FileTime.from(Instant.now().minus(GRACE.multipliedBy(2))));
+    }
+
+    private static Song song(String audioPath) {
+        return new Song("Title", "Artist", null, null, 180, audioPath, null);
+    }
+}
@@ -0,0 +1,30 @@
+package com.musicstreaming.app.service;
+
+import com.musicstreaming.app.model.Role;
+import com.musicstreaming.app.streaming.SongMetadata;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingAccessServiceTest {
+
+    private final StreamingAccessService access = new StreamingAccessService();
+
+    @Test
+    void usersStreamActiveSongsOnly() {
+        assertThat(access.userHasAccess(song(true), Role.USER)).isTrue();
+        assertThat(access.userHasAccess(song(false), Role.USER)).isFalse();
+    }
+
+    @Test
+    void adminsStreamDeactivatedSongsToo() {
+        assertThat(access.userHasAccess(song(true), Role.ADMIN)).isTrue();
+        assertThat(access.userHasAccess(song(false), Role.ADMIN)).isTrue();
+    }
+
+    private static SongMetadata song(boolean active) {
+        return new SongMetadata(UUID.randomUUID(), "Title", "Artist", null, "storage/audio/x.mp3", active);
+    }
+}
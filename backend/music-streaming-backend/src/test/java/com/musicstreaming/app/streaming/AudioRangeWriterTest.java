@@ -0,0 +1,244 @@
+package com.musicstreaming.app.streaming;
+
+import com.musicstreaming.app.service.HttpConditionals;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AudioRangeWriterTest {
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private byte[] content;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MappedAudioCache cache = new MappedAudioCache(
+            new AudioCacheProperties(true, DataSize.ofMegabytes(1), DataSize.ofMegabytes(1), 2),
+            registry
+    );
+    private final AudioRangeWriter writer = new AudioRangeWriter(cache);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        content = new byte[1000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        file = Files.write(dir.resolve("track.mp3"), content);
+    }
+
+    private MockHttpServletResponse get(String range) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/stream/songs/x");
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        return send(request);
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        writer.write(file, MediaType.APPLICATION_OCTET_STREAM, CacheControl.noCache(), request, response);
+        return response;
+    }
+
+    @Test
+    void noRangeSendsWholeFile() throws Exception {
+        MockHttpServletResponse response = get(null);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+    }
+
+    @Test
+    void singleRangeIsPartialContent() throws Exception {
+        MockHttpServletResponse response = get("bytes=10-19");
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 10-19/1000");
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 10, 20));
+    }
+
+    @Test
+    void openEndedAndSuffixRanges() throws Exception {
+        assertThat(get("bytes=990-").getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 990-999/1000");
+
+        MockHttpServletResponse suffix = get("bytes=-5");
+        assertThat(suffix.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 995-999/1000");
+        assertThat(suffix.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 995, 1000));
+    }
+
+    @Test
+    void multipleRangesUseMultipartByteranges() throws Exception {
+        MockHttpServletResponse response = get("bytes=0-1,-2");
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentType()).startsWith("multipart/byteranges; boundary=");
+        assertThat(response.getContentAsByteArray().length).isEqualTo(response.getContentLengthLong());
+        assertThat(response.getContentAsString())
+                .contains("Content-Range: bytes 0-1/1000")
+                .contains("Content-Range: bytes 998-999/1000");
+    }
+
+    @Test
+    void hotTrackIsServedFromMapping() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = get("bytes=100-199");
+            assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 100, 200));
+        }
+
+        // Below the threshold from disk, mapped on the second request, a hit on the third
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.mappedBytes()).isEqualTo(content.length);
+        assertThat(registry.get("audio.cache.requests").tag("result", "miss").counter().count()).isEqualTo(2);
+        assertThat(registry.get("audio.cache.requests").tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void evictedFileMustEarnItsMappingAgain() throws Exception {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        // Room for one of the two files; admitted on the second request
+        MappedAudioCache small = new MappedAudioCache(
+                new AudioCacheProperties(true, DataSize.ofBytes(1500), DataSize.ofBytes(1500), 2),
+                meters
+        );
+        Path other = Files.write(dir.resolve("other.mp3"), content);
+
+        for (Path track : List.of(file, file, other, other)) {
+            small.open(track).close();
+        }
+        assertThat(small.size()).isEqualTo(1);
+        assertThat(meters.get("audio.cache.evictions").counter().count()).isEqualTo(1);
+
+        // Without the reset this would map again and evict the other file
+        small.open(file).close();
+        assertThat(meters.get("audio.cache.evictions").counter().count()).isEqualTo(1);
+
+        small.open(file).close();
+        assertThat(meters.get("audio.cache.evictions").counter().count()).isEqualTo(2);
+        small.clear();
+    }
+
+    @Test
+    void plainFilesNeverTakeMappedMemory() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/media/covers/x");
+            request.addHeader(HttpHeaders.RANGE, "bytes=100-199");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            writer.writeFile(file, MediaType.IMAGE_JPEG, CacheControl.noCache(), request, response);
+
+            assertThat(response.getStatus()).isEqualTo(206);
+            assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 100, 200));
+        }
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void unsatisfiableRangeIs416() throws Exception {
+        MockHttpServletResponse response = get("bytes=1000-");
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */1000");
+    }
+
+    @Test
+    void matchingEtagIsNotModified() throws Exception {
+        String etag = get(null).getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/stream/songs/x");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = send(request);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void staleIfRangeSendsWholeFile() throws Exception {
+        String etag = get(null).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest current = new MockHttpServletRequest("GET", "/api/stream/songs/x");
+        current.addHeader(HttpHeaders.RANGE, "bytes=10-19");
+        current.addHeader(HttpHeaders.IF_RANGE, etag);
+        assertThat(send(current).getStatus()).isEqualTo(206);
+
+        MockHttpServletRequest stale = new MockHttpServletRequest("GET", "/api/stream/songs/x");
+        stale.addHeader(HttpHeaders.RANGE, "bytes=10-19");
+        stale.addHeader(HttpHeaders.IF_RANGE, "\"outdated\"");
+        MockHttpServletResponse response = send(stale);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void ifRangeDateMustMatchLastModified() throws Exception {
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+
+        assertThat(getIfRange(lastModified).getStatus()).isEqualTo(206);
+        assertThat(getIfRange(lastModified - 60_000).getStatus()).isEqualTo(200);
+        assertThat(HttpConditionals.ifRangeMatches("not a date", "\"etag\"", lastModified)).isFalse();
+    }
+
+    private MockHttpServletResponse getIfRange(long date) throws Exception {
+        HttpHeaders dated = new HttpHeaders();
+        dated.setDate(HttpHeaders.IF_RANGE, date);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/stream/songs/x");
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-19");
+        request.addHeader(HttpHeaders.IF_RANGE, dated.getFirst(HttpHeaders.IF_RANGE));
+        return send(request);
+    }
+
+    @Test
+    void openingsOfSeveralFilesInOneResponse() throws Exception {
+        Path small = Files.write(dir.resolve("small.mp3"), new byte[] {1, 2, 3});
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.writeOpenings(List.of(
+                new AudioRangeWriter.Opening("/api/stream/songs/a", file),
+                new AudioRangeWriter.Opening("/api/stream/songs/gone", dir.resolve("gone.mp3")),
+                new AudioRangeWriter.Opening("/api/stream/songs/b", small)
+        ), 100, MediaType.APPLICATION_OCTET_STREAM, CacheControl.noCache(), response);
+
+        String body = response.getContentAsString(StandardCharsets.ISO_8859_1);
+        assertThat(response.getContentType()).startsWith("multipart/mixed; boundary=");
+        assertThat(response.getContentLengthLong()).isEqualTo(response.getContentAsByteArray().length);
+        assertThat(body).contains("Content-Range: bytes 0-99/1000\r\nContent-Location: /api/stream/songs/a");
+        assertThat(body).contains("Content-Range: bytes 0-2/3\r\nContent-Location: /api/stream/songs/b");
+        assertThat(body).doesNotContain("gone");
+    }
+
+    @Test
+    void noOpeningsIsNoContent() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.writeOpenings(List.of(), 100, MediaType.APPLICATION_OCTET_STREAM, CacheControl.noCache(), response);
+
+        assertThat(response.getStatus()).isEqualTo(204);
+    }
+
+    @Test
+    void malformedRangeFallsBackToWholeFile() throws Exception {
+        assertThat(get("bytes=abc").getStatus()).isEqualTo(200);
+        assertThat(get("bytes=20-10").getStatus()).isEqualTo(200);
+    }
+}
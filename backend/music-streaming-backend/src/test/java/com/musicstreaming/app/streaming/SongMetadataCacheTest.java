@@ -0,0 +1,91 @@
+package com.musicstreaming.app.streaming;
+
+import com.musicstreaming.app.model.Song;
+import com.musicstreaming.app.repository.SongRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SongMetadataCacheTest {
+
+    private final SongRepository songRepository = mock(SongRepository.class);
+    private final SongMetadataCache cache = new SongMetadataCache(
+            songRepository, new SongCacheProperties(100, Duration.ofMinutes(10)), new SimpleMeterRegistry());
+
+    private final UUID songId = UUID.randomUUID();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void repeatedLookupsHitTheDatabaseOnce() {
+        when(songRepository.findById(songId)).thenReturn(Optional.of(song(true)));
+
+        assertThat(cache.get(songId).title()).isEqualTo("Title");
+        assertThat(cache.get(songId).active()).isTrue();
+
+        verify(songRepository, times(1)).findById(songId);
+    }
+
+    @Test
+    void unknownSongIsNotFoundAndNotRemembered() {
+        when(songRepository.findById(songId)).thenReturn(Optional.empty(), Optional.of(song(true)));
+
+        assertThatThrownBy(() -> cache.get(songId)).isInstanceOf(EntityNotFoundException.class);
+        // Created since → found on the next lookup
+        assertThat(cache.get(songId).id()).isEqualTo(songId);
+    }
+
+    @Test
+    void evictReloadsTheCurrentRow() {
+        when(songRepository.findById(songId)).thenReturn(Optional.of(song(true)), Optional.of(song(false)));
+        cache.get(songId);
+
+        cache.evict(songId);
+
+        assertThat(cache.get(songId).active()).isFalse();
+    }
+
+    @Test
+    void evictAfterCommitWaitsForTheCommit() {
+        when(songRepository.findById(songId)).thenReturn(Optional.of(song(true)), Optional.of(song(false)));
+        cache.get(songId);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evictAfterCommit(songId);
+
+        // Still inside the transaction: the committed row is the active one
+        assertThat(cache.get(songId).active()).isTrue();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(cache.get(songId).active()).isFalse();
+    }
+
+    private Song song(boolean active) {
+        Song song = new Song("Title", "Artist", null, "Rock", 180, "storage/audio/x.mp3", null);
+        ReflectionTestUtils.setField(song, "id", songId);
+        if (!active) {
+            song.deactivate();
+        }
+        return song;
+    }
+}
@@ -0,0 +1,102 @@
+package com.musicstreaming.app.timing;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerTimingTest {
+
+    @TempDir
+    Path dir;
+
+    private MockHttpServletResponse run(HttpServlet servlet) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new ServerTimingFilter().doFilter(new MockHttpServletRequest("GET", "/api/stream/songs/x"),
+                response, new MockFilterChain(servlet));
+        return response;
+    }
+
+    @Test
+    void phasesBeforeTheBodyAreInTheHeader() throws Exception {
+        MockHttpServletResponse response = run(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                ServerTiming.record("jwt", 1_500_000);
+                DbLookupEvent.time("Song", UUID.randomUUID(), Optional::empty);
+                CacheLookupEvent.emit("songMetadata", "x", false);
+                resp.getOutputStream().write(1);
+                ServerTiming.record("write", 9_000_000);
+            }
+        });
+
+        String header = response.getHeader(ServerTimingFilter.HEADER);
+        assertThat(header).startsWith("jwt;dur=1.500, db;desc=\"Song\";dur=")
+                .endsWith(", songMetadata;desc=\"miss\"");
+        assertThat(header).doesNotContain("write");
+    }
+
+    @Test
+    void bodylessResponsesGetTheHeaderAtTheEnd() throws Exception {
+        MockHttpServletResponse response = run(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                ServerTiming.record("io", 250_000);
+                resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            }
+        });
+
+        assertThat(response.getHeader(ServerTimingFilter.HEADER)).isEqualTo("io;dur=0.250");
+    }
+
+    @Test
+    void nothingIsCollectedOutsideTheFilter() {
+        ServerTiming.record("jwt", 1_000);
+        ServerTiming.mark("audio", "hit");
+
+        assertThat(ServerTiming.begin().header()).isEmpty();
+        ServerTiming.end();
+    }
+
+    @Test
+    void eventsReachAFlightRecording() throws Exception {
+        Path file = dir.resolve("timing.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(DbLookupEvent.class);
+            recording.enable(CacheLookupEvent.class);
+            recording.start();
+
+            UUID id = UUID.randomUUID();
+            DbLookupEvent.time("Song", id, Optional::empty);
+            CacheLookupEvent.emit("songMetadata", id, true);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo("musicstreaming.DbLookup");
+            assertThat(event.getString("entity")).isEqualTo("Song");
+        });
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo("musicstreaming.CacheLookup");
+            assertThat(event.getBoolean("hit")).isTrue();
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package com.musicstreaming.app.transcoding;
+
+import com.musicstreaming.app.config.StorageProperties;
+import com.musicstreaming.app.repository.SongRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TranscodingServiceTest {
+
+    @TempDir
+    Path root;
+
+    private final SongRepository songRepository = mock(SongRepository.class);
+    private final UUID songId = UUID.randomUUID();
+
+    // Stands in for ffmpeg; tests swap in their own behaviour
+    private Encoder encoder;
+    private TranscodingService service;
+
+    @FunctionalInterface
+    interface Encoder {
+        void encode(Rendition rendition, Path outputDir) throws IOException;
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TranscodingProperties props = new TranscodingProperties(true, "ffmpeg", Duration.ofSeconds(6),
+                Duration.ofMinutes(1), 1, List.of(new Rendition("64k", 64), new Rendition("128k", 128)));
+        encoder = TranscodingServiceTest::writeRendition;
+        service = new TranscodingService(props, new StorageProperties(root, Duration.ofHours(1)),
+                (source, rendition, segmentDuration, dir) -> encoder.encode(rendition, dir), songRepository);
+        when(songRepository.existsById(songId)).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void publishesTheFullLadder() throws Exception {
+        service.transcode(songId, root.resolve("source.mp3"));
+
+        assertThat(Files.readString(service.masterPlaylist(songId)))
+                .contains("BANDWIDTH=70400", "64k/index.m3u8", "128k/index.m3u8");
+        assertThat(service.mediaFile(songId, "128k", "segment-00000.ts")).exists();
+        assertThat(service.mediaFile(songId, "256k", "segment-00000.ts")).isNull();
+        assertThat(service.mediaFile(songId, "64k", "../current")).isNull();
+    }
+
+    @Test
+    void oldLadderIsServedUntilTheNewOneIsComplete() throws Exception {
+        service.transcode(songId, root.resolve("source.mp3"));
+        Path first = service.masterPlaylist(songId);
+
+        encoder = (rendition, dir) -> {
+            assertThat(service.masterPlaylist(songId)).isEqualTo(first).exists();
+            writeRendition(rendition, dir);
+        };
+        service.transcode(songId, root.resolve("source.mp3"));
+
+        assertThat(service.masterPlaylist(songId)).isNotEqualTo(first).exists();
+        // The replaced version stays for readers that resolved it just before the swap
+        assertThat(first).exists();
+
+        encoder = TranscodingServiceTest::writeRendition;
+        service.transcode(songId, root.resolve("source.mp3"));
+        assertThat(first).doesNotExist();
+        assertThat(versions()).hasSize(2);
+    }
+
+    @Test
+    void failedEncodeKeepsThePublishedLadder() throws Exception {
+        service.transcode(songId, root.resolve("source.mp3"));
+        Path published = service.masterPlaylist(songId);
+
+        encoder = (rendition, dir) -> {
+            throw new IOException("encoder crashed");
+        };
+        service.transcode(songId, root.resolve("source.mp3"));
+
+        assertThat(service.masterPlaylist(songId)).isEqualTo(published).exists();
+        assertThat(versions()).hasSize(1);
+    }
+
+    @Test
+    void songDeletedWhileEncodingLeavesNothingBehind() throws Exception {
+        when(songRepository.existsById(songId)).thenReturn(false);
+
+        service.transcode(songId, root.resolve("source.mp3"));
+
+        assertThat(service.masterPlaylist(songId)).isNull();
+        assertThat(root.resolve("hls").resolve(songId.toString())).doesNotExist();
+    }
+
+    @Test
+    void listsAndDeletesLadders() throws Exception {
+        assertThat(service.ladders()).isEmpty();
+        service.transcode(songId, root.resolve("source.mp3"));
+
+        assertThat(service.ladders()).containsExactly(songId);
+
+        service.delete(songId);
+        assertThat(service.ladders()).isEmpty();
+        assertThat(service.masterPlaylist(songId)).isNull();
+    }
+
+    private List<Path> versions() throws IOException {
+        try (Stream<Path> dirs = Files.list(root.resolve("hls").resolve(songId.toString()))) {
+            return dirs.filter(Files::isDirectory).toList();
+        }
+    }
+
+    private static void writeRendition(Rendition rendition, Path dir) throws IOException {
+        Files.writeString(dir.resolve("index.m3u8"), "#EXTM3U\nsegment-00000.ts\n");
+        Files.write(dir.resolve("segment-00000.ts"), new byte[188]);
+    }
+}
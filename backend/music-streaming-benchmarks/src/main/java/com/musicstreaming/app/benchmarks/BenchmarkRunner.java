@@ -0,0 +1,85 @@
+package com.musicstreaming.app.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of {@code benchmarks.jar}.
+ *
+ * <pre>
+ * java -jar benchmarks.jar [jmh options] [--result current.json] [--baseline baseline.json] [--threshold 10]
+ * java -jar benchmarks.jar --compare baseline.json current.json [--threshold 10]
+ * </pre>
+ *
+ * Runs always include the GC profiler, so every result carries
+ * {@code gc.alloc.rate.norm} (bytes allocated per operation). With a baseline,
+ * the process exits with status 1 when any benchmark regressed.
+ */
+public final class BenchmarkRunner {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10;
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        Path result = Path.of("jmh-result.json");
+        Path baseline = null;
+        Path compareCurrent = null;
+        double threshold = DEFAULT_THRESHOLD_PERCENT;
+
+        List<String> jmhArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--result" -> result = Path.of(args[++i]);
+                case "--baseline" -> baseline = Path.of(args[++i]);
+                case "--threshold" -> threshold = Double.parseDouble(args[++i]);
+                case "--compare" -> {
+                    baseline = Path.of(args[++i]);
+                    compareCurrent = Path.of(args[++i]);
+                }
+                default -> jmhArgs.add(args[i]);
+            }
+        }
+
+        // Compare-only mode: two result files from earlier runs
+        if (compareCurrent != null) {
+            System.exit(compare(baseline, compareCurrent, threshold));
+        }
+
+        CommandLineOptions cli = new CommandLineOptions(jmhArgs.toArray(String[]::new));
+        new Runner(new OptionsBuilder()
+                .parent(cli)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build()
+        ).run();
+
+        if (baseline != null) {
+            System.exit(compare(baseline, result, threshold));
+        }
+    }
+
+    private static int compare(Path baseline, Path current, double threshold) throws Exception {
+        ResultComparator comparator = new ResultComparator(threshold);
+        List<ResultComparator.Comparison> comparisons = comparator.compare(baseline, current);
+
+        System.out.println();
+        System.out.println(ResultComparator.report(comparisons));
+
+        long regressions = comparisons.stream().filter(ResultComparator.Comparison::regressed).count();
+        if (regressions > 0) {
+            System.out.println(regressions + " regression(s) above " + threshold + "% against " + baseline);
+            return 1;
+        }
+        System.out.println("No regressions above " + threshold + "% against " + baseline);
+        return 0;
+    }
+}
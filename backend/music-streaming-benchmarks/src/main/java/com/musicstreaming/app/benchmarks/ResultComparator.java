@@ -0,0 +1,152 @@
+package com.musicstreaming.app.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files benchmark by benchmark (including
+ * {@code @Param} values) on score and on bytes allocated per operation.
+ *
+ * A score counts as regressed when it moved the wrong way by more than the
+ * threshold and by more than the two runs' combined error; allocation when
+ * it grew by more than the threshold and by more than {@link #ALLOC_NOISE_BYTES}.
+ */
+public class ResultComparator {
+
+    /** Allocation differences below this many bytes/op are TLAB / profiler noise. */
+    static final double ALLOC_NOISE_BYTES = 64;
+
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final double thresholdPercent;
+
+    public ResultComparator(double thresholdPercent) {
+        this.thresholdPercent = thresholdPercent;
+    }
+
+    public List<Comparison> compare(Path baseline, Path current) throws IOException {
+        return compare(objectMapper.readTree(baseline.toFile()), objectMapper.readTree(current.toFile()));
+    }
+
+    List<Comparison> compare(JsonNode baseline, JsonNode current) {
+        Map<String, JsonNode> before = index(baseline);
+
+        List<Comparison> comparisons = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : index(current).entrySet()) {
+            JsonNode old = before.get(entry.getKey());
+            if (old != null) {
+                comparisons.add(compare(entry.getKey(), old, entry.getValue()));
+            }
+        }
+        return comparisons;
+    }
+
+    private Comparison compare(String name, JsonNode old, JsonNode now) {
+        JsonNode oldMetric = old.path("primaryMetric");
+        JsonNode newMetric = now.path("primaryMetric");
+
+        double oldScore = oldMetric.path("score").asDouble();
+        double newScore = newMetric.path("score").asDouble();
+        double error = finite(oldMetric.path("scoreError").asDouble()) + finite(newMetric.path("scoreError").asDouble());
+
+        // Throughput: higher is better; every other mode reports time per op
+        boolean higherIsBetter = "thrpt".equals(now.path("mode").asText());
+        double worse = higherIsBetter ? oldScore - newScore : newScore - oldScore;
+        boolean scoreRegressed = worse > error && worse > Math.abs(oldScore) * thresholdPercent / 100;
+
+        double oldAlloc = allocation(old);
+        double newAlloc = allocation(now);
+        boolean allocRegressed = !Double.isNaN(oldAlloc) && !Double.isNaN(newAlloc)
+                && newAlloc - oldAlloc > ALLOC_NOISE_BYTES
+                && newAlloc - oldAlloc > oldAlloc * thresholdPercent / 100;
+
+        return new Comparison(
+                name,
+                newMetric.path("scoreUnit").asText(),
+                oldScore,
+                newScore,
+                oldAlloc,
+                newAlloc,
+                scoreRegressed,
+                allocRegressed
+        );
+    }
+
+    /** Benchmark name plus its parameters → result node. */
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byName = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder name = new StringBuilder(result.path("benchmark").asText());
+
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                params.put(field.getKey(), field.getValue().asText());
+            }
+            if (!params.isEmpty()) {
+                name.append(params);
+            }
+            byName.put(name.toString(), result);
+        }
+        return byName;
+    }
+
+    private static double allocation(JsonNode result) {
+        Iterator<Map.Entry<String, JsonNode>> metrics = result.path("secondaryMetrics").fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            // Older JMH versions prefix profiler metrics with "·"
+            if (metric.getKey().endsWith(ALLOC_METRIC)) {
+                return metric.getValue().path("score").asDouble();
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static double finite(double value) {
+        return Double.isFinite(value) ? value : 0;
+    }
+
+    static String report(List<Comparison> comparisons) {
+        StringBuilder report = new StringBuilder(String.format(
+                "%-90s %14s %14s %8s %14s %14s%n", "Benchmark", "Baseline", "Current", "Change", "Alloc B/op", "Was B/op"));
+        for (Comparison c : comparisons) {
+            report.append(String.format("%-90s %14.3f %14.3f %7.1f%% %14.0f %14.0f %s %s%n",
+                    c.name(), c.oldScore(), c.newScore(), c.changePercent(),
+                    c.newAlloc(), c.oldAlloc(), c.unit(),
+                    c.regressed() ? "<< REGRESSION" : ""));
+        }
+        return report.toString();
+    }
+
+    public record Comparison(
+            String name,
+            String unit,
+            double oldScore,
+            double newScore,
+            double oldAlloc,
+            double newAlloc,
+            boolean scoreRegressed,
+            boolean allocRegressed
+    ) {
+
+        public boolean regressed() {
+            return scoreRegressed || allocRegressed;
+        }
+
+        double changePercent() {
+            return oldScore == 0 ? 0 : (newScore - oldScore) / oldScore * 100;
+        }
+    }
+}
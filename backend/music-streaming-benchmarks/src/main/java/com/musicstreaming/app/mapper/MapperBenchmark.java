@@ -0,0 +1,87 @@
+package com.musicstreaming.app.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musicstreaming.app.dto.PlaylistResponse;
+import com.musicstreaming.app.dto.SongResponse;
+import com.musicstreaming.app.model.Playlist;
+import com.musicstreaming.app.model.PlaylistSong;
+import com.musicstreaming.app.model.Role;
+import com.musicstreaming.app.model.Song;
+import com.musicstreaming.app.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity → DTO conversion and JSON serialization of large song lists, the
+ * CPU and allocation cost behind catalog and playlist responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int songs;
+
+    private List<Song> catalog;
+    private Playlist playlist;
+    private List<SongResponse> responses;
+
+    // Same defaults as the ObjectMapper Spring Boot auto-configures
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Setup
+    public void setUp() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+        catalog = new ArrayList<>(songs);
+        for (int i = 0; i < songs; i++) {
+            Song song = new Song(
+                    "Track " + i,
+                    "Artist " + (i % 500),
+                    "Album " + (i % 2000),
+                    i % 2 == 0 ? "Rock" : "Jazz",
+                    180 + i % 120,
+                    "storage/audio/" + UUID.randomUUID() + ".mp3",
+                    "storage/covers/" + UUID.randomUUID() + ".jpg"
+            );
+            ReflectionTestUtils.setField(song, "id", UUID.randomUUID());
+            ReflectionTestUtils.setField(song, "createdAt", createdAt.plusSeconds(i));
+            catalog.add(song);
+        }
+
+        User owner = new User("listener@example.com", "encoded", Role.USER);
+        playlist = new Playlist("Benchmark", owner);
+        ReflectionTestUtils.setField(playlist, "id", UUID.randomUUID());
+        for (int i = 0; i < songs; i++) {
+            playlist.getSongs().add(new PlaylistSong(playlist, catalog.get(i), (i + 1) * 1024));
+        }
+
+        responses = songsToResponses();
+    }
+
+    @Benchmark
+    public List<SongResponse> songsToResponses() {
+        return catalog.stream().map(SongMapper::toResponse).toList();
+    }
+
+    @Benchmark
+    public PlaylistResponse playlistToResponse() {
+        return PlaylistMapper.toResponse(playlist);
+    }
+
+    @Benchmark
+    public byte[] serializeSongResponses() throws Exception {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+}
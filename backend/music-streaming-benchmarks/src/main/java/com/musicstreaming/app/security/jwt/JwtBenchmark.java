@@ -0,0 +1,55 @@
+package com.musicstreaming.app.security.jwt;
+
+import com.musicstreaming.app.model.Role;
+import com.musicstreaming.app.model.User;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification: the full HMAC + JSON parse that
+ * {@code JwtAuthenticationFilter} pays on a cache miss, and the cached path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "THIS_IS_A_32_CHAR_SECRET_KEY_FOR_JWT!!";
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(new JwtProperties(SECRET, 3_600_000, 10_000), new SimpleMeterRegistry());
+
+        user = new User("listener@example.com", "encoded", Role.USER);
+        ReflectionTestUtils.setField(user, "id", UUID.randomUUID());
+
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return jwtService.parseToken(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal authenticateCached() {
+        return jwtService.authenticate(token);
+    }
+}
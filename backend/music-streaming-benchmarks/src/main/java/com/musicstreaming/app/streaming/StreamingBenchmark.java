@@ -0,0 +1,138 @@
+package com.musicstreaming.app.streaming;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Range parsing and the file read behind {@code StreamingController.streamSong},
+ * for a track served from the file channel ({@code mapped=false}) and from the
+ * mapped hot-track cache ({@code mapped=true}). The response body is discarded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamingBenchmark {
+
+    private static final int TRACK_SIZE = 4 * 1024 * 1024;
+    private static final int SEEK_SIZE = 64 * 1024;
+
+    @Param({"false", "true"})
+    public boolean mapped;
+
+    private Path file;
+    private MappedAudioCache cache;
+    private AudioRangeWriter writer;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] content = new byte[TRACK_SIZE];
+        ThreadLocalRandom.current().nextBytes(content);
+        file = Files.write(Files.createTempFile("benchmark-track", ".mp3"), content);
+
+        cache = new MappedAudioCache(
+                new AudioCacheProperties(mapped, DataSize.ofMegabytes(64), DataSize.ofMegabytes(64), 1),
+                new SimpleMeterRegistry()
+        );
+        writer = new AudioRangeWriter(cache);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        cache.clear();
+        Files.deleteIfExists(file);
+    }
+
+    // ================= RANGE PARSING =================
+
+    @Benchmark
+    public List<?> parseSingleRange() {
+        return AudioRangeWriter.parseRanges("bytes=1048576-1114111", TRACK_SIZE);
+    }
+
+    @Benchmark
+    public List<?> parseOpenEndedRange() {
+        return AudioRangeWriter.parseRanges("bytes=2097152-", TRACK_SIZE);
+    }
+
+    @Benchmark
+    public List<?> parseMultiRange() {
+        return AudioRangeWriter.parseRanges("bytes=0-1023, 4096-8191, -1024", TRACK_SIZE);
+    }
+
+    // ================= FILE READ =================
+
+    /** What an {@code <audio>} element sends when the user seeks. */
+    @Benchmark
+    public long seek() throws IOException {
+        long start = ThreadLocalRandom.current().nextInt(TRACK_SIZE - SEEK_SIZE);
+        return serve("bytes=" + start + "-" + (start + SEEK_SIZE - 1));
+    }
+
+    @Benchmark
+    public long fullTrack() throws IOException {
+        return serve(null);
+    }
+
+    private long serve(String range) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/stream/songs/benchmark");
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        DiscardingResponse response = new DiscardingResponse();
+        writer.write(file, MediaType.APPLICATION_OCTET_STREAM, CacheControl.noCache(), request, response);
+        return response.out.written;
+    }
+
+    /** Counts the body instead of buffering it like {@link MockHttpServletResponse} does. */
+    private static final class DiscardingResponse extends MockHttpServletResponse {
+
+        private final CountingOutputStream out = new CountingOutputStream();
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return out;
+        }
+    }
+
+    private static final class CountingOutputStream extends ServletOutputStream {
+
+        private long written;
+
+        @Override
+        public void write(int b) {
+            written++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            written += len;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+    }
+}
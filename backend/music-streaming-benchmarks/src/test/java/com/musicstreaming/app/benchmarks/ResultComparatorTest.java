@@ -0,0 +1,62 @@
+package com.musicstreaming.app.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultComparatorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ResultComparator comparator = new ResultComparator(10);
+
+    private JsonNode results(String mode, double score, double error, double alloc) throws Exception {
+        return objectMapper.readTree("""
+                [{
+                  "benchmark": "com.musicstreaming.app.streaming.StreamingBenchmark.seek",
+                  "mode": "%s",
+                  "params": {"mapped": "true"},
+                  "primaryMetric": {"score": %s, "scoreError": %s, "scoreUnit": "us/op"},
+                  "secondaryMetrics": {"gc.alloc.rate.norm": {"score": %s}}
+                }]
+                """.formatted(mode, score, error, alloc));
+    }
+
+    @Test
+    void slowerAverageTimeBeyondErrorIsARegression() throws Exception {
+        List<ResultComparator.Comparison> result =
+                comparator.compare(results("avgt", 100, 2, 1000), results("avgt", 130, 2, 1000));
+
+        assertThat(result).singleElement().satisfies(c -> {
+            assertThat(c.name()).endsWith("seek{mapped=true}");
+            assertThat(c.scoreRegressed()).isTrue();
+            assertThat(c.allocRegressed()).isFalse();
+        });
+    }
+
+    @Test
+    void changesWithinNoiseAreIgnored() throws Exception {
+        // 15% slower but within the combined error of the two runs
+        assertThat(comparator.compare(results("avgt", 100, 10, 1000), results("avgt", 115, 10, 1000)))
+                .noneMatch(ResultComparator.Comparison::regressed);
+
+        // Lower throughput is worse, higher is not
+        assertThat(comparator.compare(results("thrpt", 100, 1, 0), results("thrpt", 150, 1, 0)))
+                .noneMatch(ResultComparator.Comparison::regressed);
+        assertThat(comparator.compare(results("thrpt", 100, 1, 0), results("thrpt", 50, 1, 0)))
+                .allMatch(ResultComparator.Comparison::scoreRegressed);
+    }
+
+    @Test
+    void allocationGrowthIsARegression() throws Exception {
+        assertThat(comparator.compare(results("avgt", 100, 1, 1000), results("avgt", 100, 1, 1500)))
+                .allMatch(ResultComparator.Comparison::allocRegressed);
+
+        // A few bytes more on a tiny allocation is noise
+        assertThat(comparator.compare(results("avgt", 100, 1, 24), results("avgt", 100, 1, 48)))
+                .noneMatch(ResultComparator.Comparison::regressed);
+    }
+}
@@ -0,0 +1,145 @@
+package com.musicstreaming.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Writes a synthetic catalog straight into the schema the backend created:
+ * listener accounts, songs, and one generated audio file per song stored
+ * the way uploads are ({@code storage/audio/ab/cd/<sha256>.mp3}).
+ */
+class CatalogSeeder {
+
+    static final String PASSWORD = "loadtest-password";
+
+    static final List<String> WORDS = List.of(
+            "midnight", "echo", "river", "neon", "summer", "velvet", "thunder", "golden",
+            "shadow", "ocean", "electric", "paper", "silver", "wild", "broken", "crystal",
+            "desert", "fire", "ghost", "harbor", "island", "jungle", "lunar", "morning",
+            "northern", "orbit", "paradise", "quiet", "rebel", "satellite", "twilight", "winter"
+    );
+    static final List<String> GENRES = List.of("Rock", "Pop", "Jazz", "Electronic", "Hip-Hop", "Classical", "Folk", "Metal");
+
+    private static final int BATCH_SIZE = 500;
+
+    private final DataSource dataSource;
+    private final Path workDir;
+    private final Random random;
+
+    CatalogSeeder(DataSource dataSource, Path workDir, long seed) {
+        this.dataSource = dataSource;
+        this.workDir = workDir;
+        this.random = new Random(seed);
+    }
+
+    /** @return the listener e-mails, all with password {@link #PASSWORD} */
+    List<String> seedUsers(int count) throws SQLException {
+        String encoded = new BCryptPasswordEncoder().encode(PASSWORD);
+        List<String> emails = new ArrayList<>(count);
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO users (id, email, encoded_password, role, created_at) VALUES (?, ?, ?, 'USER', ?)")) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < count; i++) {
+                String email = "listener" + i + "@loadtest.local";
+                insert.setObject(1, UUID.randomUUID());
+                insert.setString(2, email);
+                insert.setString(3, encoded);
+                insert.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                insert.addBatch();
+                emails.add(email);
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        return emails;
+    }
+
+    void seedSongs(int count, long audioSize) throws SQLException, IOException {
+        LocalDateTime now = LocalDateTime.now();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement("""
+                     INSERT INTO songs (id, title, artist, album, genre, duration_sec, audio_path, cover_path, active, created_at)
+                     VALUES (?, ?, ?, ?, ?, ?, ?, NULL, TRUE, ?)
+                     """)) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < count; i++) {
+                insert.setObject(1, UUID.randomUUID());
+                insert.setString(2, capitalize(word()) + " " + capitalize(word()));
+                insert.setString(3, "The " + capitalize(word()) + "s");
+                insert.setString(4, capitalize(word()) + " " + (1 + random.nextInt(9)));
+                insert.setString(5, GENRES.get(random.nextInt(GENRES.size())));
+                insert.setInt(6, 120 + random.nextInt(240));
+                insert.setString(7, writeAudio(audioSize));
+                insert.setTimestamp(8, Timestamp.valueOf(now.minusSeconds(i)));
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    /** Random bytes (distinct per song), content-addressed like a real upload. */
+    private String writeAudio(long size) throws IOException {
+        MessageDigest sha256 = sha256();
+        Path temp = Files.createTempFile(Files.createDirectories(workDir.resolve("storage/tmp")), "seed-", ".part");
+
+        byte[] chunk = new byte[64 * 1024];
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            for (long written = 0; written < size; written += chunk.length) {
+                random.nextBytes(chunk);
+                int length = (int) Math.min(chunk.length, size - written);
+                sha256.update(chunk, 0, length);
+                out.write(chunk, 0, length);
+            }
+        }
+
+        String hash = HexFormat.of().formatHex(sha256.digest());
+        String relative = "storage/audio/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + ".mp3";
+        Path target = workDir.resolve(relative);
+        Files.createDirectories(target.getParent());
+        Files.move(temp, target);
+        return relative;
+    }
+
+    private String word() {
+        return WORDS.get(random.nextInt(WORDS.size()));
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.musicstreaming.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram (microseconds), request, error and byte counters for one
+ * endpoint. Safe to record from many listener threads.
+ */
+class EndpointStats {
+
+    private final String name;
+    private final Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    void success(long elapsedNanos, long responseBytes) {
+        requests.increment();
+        bytes.add(responseBytes);
+        latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), latency.getHighestTrackableValue()));
+    }
+
+    void failure() {
+        requests.increment();
+        errors.increment();
+    }
+
+    String name() {
+        return name;
+    }
+
+    long requests() {
+        return requests.sum();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    long bytes() {
+        return bytes.sum();
+    }
+
+    /** Latency at the given percentile in milliseconds (0 when nothing succeeded). */
+    double percentileMillis(double percentile) {
+        return latency.getTotalCount() == 0 ? 0 : latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    double maxMillis() {
+        return latency.getTotalCount() == 0 ? 0 : latency.getMaxValue() / 1000.0;
+    }
+}
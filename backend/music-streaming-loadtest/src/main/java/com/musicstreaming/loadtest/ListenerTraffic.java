@@ -0,0 +1,241 @@
+package com.musicstreaming.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+
+/**
+ * Replays what the web player does, one virtual thread per listener: log in,
+ * then repeat sessions of catalog browsing, a search and a few tracks played
+ * through consecutive {@code Range} requests, like an {@code <audio>} element.
+ * Track popularity is skewed so a small head of the catalog gets most plays.
+ */
+class ListenerTraffic {
+
+    static final String LOGIN = "POST /api/auth/login";
+    static final String BROWSE = "GET /api/songs";
+    static final String SEARCH = "GET /api/songs/search";
+    static final String STREAM = "GET /api/stream/songs/{id} (Range)";
+
+    private static final int PAGE_SIZE = 50;
+
+    private final LoadTestConfig config;
+    private final URI baseUri;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+
+    /** Measurement window, set by {@link #run}. */
+    private volatile long measureFromNanos;
+
+    ListenerTraffic(LoadTestConfig config, URI baseUri) {
+        this.config = config;
+        this.baseUri = baseUri;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        for (String endpoint : List.of(LOGIN, BROWSE, SEARCH, STREAM)) {
+            stats.put(endpoint, new EndpointStats(endpoint));
+        }
+    }
+
+    Map<String, EndpointStats> stats() {
+        return stats;
+    }
+
+    /** Every active song id, most "popular" first. Not measured. */
+    List<String> loadCatalog(String email) throws IOException, InterruptedException {
+        String token = login(email, false);
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = getJson("/api/songs?limit=200" + (cursor == null ? "" : "&cursor=" + cursor), token, null);
+            page.path("items").forEach(item -> ids.add(item.path("id").asText()));
+            cursor = page.path("nextCursor").isTextual() ? page.path("nextCursor").asText() : null;
+        } while (cursor != null);
+        return ids;
+    }
+
+    /** Runs all listeners until {@code warmup + duration} has elapsed. */
+    void run(List<String> emails, List<String> songIds) throws InterruptedException {
+        long start = System.nanoTime();
+        measureFromNanos = start + config.warmup().toNanos();
+        long endNanos = measureFromNanos + config.duration().toNanos();
+
+        try (var listeners = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.users(); i++) {
+                String email = emails.get(i % emails.size());
+                Random random = new Random(config.seed() + i);
+                listeners.submit(() -> listen(email, songIds, random, endNanos));
+            }
+        }
+    }
+
+    private void listen(String email, List<String> songIds, Random random, long endNanos) {
+        String token;
+        try {
+            token = login(email, true);
+        } catch (Exception ex) {
+            return;
+        }
+
+        while (System.nanoTime() < endNanos) {
+            browse(token, random);
+            think();
+            search(token, random);
+            think();
+
+            int tracks = 1 + random.nextInt(3);
+            for (int t = 0; t < tracks && System.nanoTime() < endNanos; t++) {
+                play(token, songIds.get(popularIndex(songIds.size(), random)));
+            }
+        }
+    }
+
+    // ================= ACTIONS =================
+
+    private String login(String email, boolean measured) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("email", email, "password", CatalogSeeder.PASSWORD));
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        long started = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IOException("Login failed with " + response.statusCode());
+            }
+            // Logins all happen during warmup, so they are counted regardless
+            if (measured) {
+                stats.get(LOGIN).success(System.nanoTime() - started, response.body().length);
+            }
+            return objectMapper.readTree(response.body()).path("token").asText();
+        } catch (IOException ex) {
+            if (measured) {
+                stats.get(LOGIN).failure();
+            }
+            throw ex;
+        }
+    }
+
+    private void browse(String token, Random random) {
+        try {
+            JsonNode page = getJson("/api/songs?limit=" + PAGE_SIZE, token, BROWSE);
+            // Half the listeners scroll on to a second page
+            if (random.nextBoolean() && page.path("nextCursor").isTextual()) {
+                getJson("/api/songs?limit=" + PAGE_SIZE + "&cursor=" + page.path("nextCursor").asText(), token, BROWSE);
+            }
+        } catch (Exception ignored) {
+            // counted as an error
+        }
+    }
+
+    private void search(String token, Random random) {
+        String word = CatalogSeeder.WORDS.get(random.nextInt(CatalogSeeder.WORDS.size()));
+        // Mix full words with search-as-you-type prefixes
+        String query = random.nextBoolean() ? word : word.substring(0, Math.min(word.length(), 3));
+        try {
+            getJson("/api/songs/search?q=" + URLEncoder.encode(query, StandardCharsets.UTF_8), token, SEARCH);
+        } catch (Exception ignored) {
+            // counted as an error
+        }
+    }
+
+    private void play(String token, String songId) {
+        long end = Math.min(config.listenBytes(), config.audioSize());
+        for (long offset = 0; offset < end; offset += config.rangeSize()) {
+            long last = Math.min(offset + config.rangeSize(), config.audioSize()) - 1;
+            HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/stream/songs/" + songId))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Range", "bytes=" + offset + "-" + last)
+                    .build();
+
+            long started = System.nanoTime();
+            try {
+                HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                long received;
+                try (InputStream body = response.body()) {
+                    received = body.transferTo(OutputStream.nullOutputStream());
+                }
+                if (response.statusCode() == 206 && received == last - offset + 1) {
+                    record(STREAM, started, received);
+                } else {
+                    fail(STREAM, started);
+                }
+            } catch (Exception ex) {
+                fail(STREAM, started);
+            }
+            think();
+        }
+    }
+
+    // ================= HELPERS =================
+
+    private JsonNode getJson(String path, String token, String endpoint) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Authorization", "Bearer " + token)
+                .build();
+
+        long started = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IOException(path + " returned " + response.statusCode());
+            }
+            if (endpoint != null) {
+                record(endpoint, started, response.body().length);
+            }
+            return objectMapper.readTree(response.body());
+        } catch (IOException ex) {
+            if (endpoint != null) {
+                fail(endpoint, started);
+            }
+            throw ex;
+        }
+    }
+
+    private void record(String endpoint, long startedNanos, long bytes) {
+        if (startedNanos >= measureFromNanos) {
+            stats.get(endpoint).success(System.nanoTime() - startedNanos, bytes);
+        }
+    }
+
+    private void fail(String endpoint, long startedNanos) {
+        if (startedNanos >= measureFromNanos) {
+            stats.get(endpoint).failure();
+        }
+    }
+
+    private void think() {
+        try {
+            Thread.sleep(config.thinkTime());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Roughly Zipf-like: the first ~10% of the catalog gets about half the plays. */
+    static int popularIndex(int size, Random random) {
+        return (int) (size * Math.pow(random.nextDouble(), 3));
+    }
+}
@@ -0,0 +1,106 @@
+package com.musicstreaming.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Options of a load-test run, all overridable as {@code --name value}.
+ *
+ * @param songs        synthetic catalog size
+ * @param users        concurrent simulated listeners (one seeded account each)
+ * @param duration     measured phase
+ * @param warmup       traffic before measuring starts (JIT, caches, page cache)
+ * @param audioSize    bytes per generated audio file
+ * @param rangeSize    bytes per {@code Range} request while a track plays
+ * @param listenBytes  how far into a track a listener gets before skipping
+ * @param thinkTime    pause between a listener's requests
+ * @param appJar       runnable backend jar ({@code app-*-exec.jar})
+ * @param workDir      scratch directory: database, {@code storage/}, app log
+ * @param seed         random seed for catalog and traffic
+ */
+public record LoadTestConfig(
+        int songs,
+        int users,
+        Duration duration,
+        Duration warmup,
+        long audioSize,
+        long rangeSize,
+        long listenBytes,
+        Duration thinkTime,
+        Path appJar,
+        Path workDir,
+        long seed
+) {
+
+    private static final Set<String> KNOWN = Set.of(
+            "songs", "users", "duration", "warmup", "audio-size", "range-size",
+            "listen-bytes", "think-time", "app-jar", "work-dir", "seed"
+    );
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+
+        LoadTestConfig config = new LoadTestConfig(
+                Integer.parseInt(options.getOrDefault("songs", "500")),
+                Integer.parseInt(options.getOrDefault("users", "50")),
+                duration(options.getOrDefault("duration", "60s")),
+                duration(options.getOrDefault("warmup", "15s")),
+                bytes(options.getOrDefault("audio-size", "1MB")),
+                bytes(options.getOrDefault("range-size", "256KB")),
+                bytes(options.getOrDefault("listen-bytes", "768KB")),
+                duration(options.getOrDefault("think-time", "200ms")),
+                Path.of(options.getOrDefault("app-jar", "../music-streaming-backend/target/app-0.0.1-SNAPSHOT-exec.jar")),
+                Path.of(options.getOrDefault("work-dir", "target/loadtest-run")),
+                Long.parseLong(options.getOrDefault("seed", "42"))
+        );
+
+        options.keySet().removeAll(KNOWN);
+        if (!options.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + options.keySet());
+        }
+        if (config.songs() <= 0 || config.users() <= 0 || config.rangeSize() <= 0 || config.audioSize() <= 0) {
+            throw new IllegalArgumentException("songs, users, audio-size and range-size must be positive");
+        }
+        return config;
+    }
+
+    /** {@code 500ms}, {@code 30s}, {@code 2m}. */
+    static Duration duration(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        long amount = Long.parseLong(v.substring(0, v.length() - 1));
+        return switch (v.charAt(v.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Bad duration: " + value);
+        };
+    }
+
+    /** {@code 4096}, {@code 256KB}, {@code 4MB}, {@code 1GB}. */
+    static long bytes(String value) {
+        String v = value.trim().toUpperCase(Locale.ROOT);
+        long unit = 1;
+        if (v.endsWith("KB")) {
+            unit = 1024;
+        } else if (v.endsWith("MB")) {
+            unit = 1024 * 1024;
+        } else if (v.endsWith("GB")) {
+            unit = 1024L * 1024 * 1024;
+        }
+        String number = unit == 1 ? v.replace("B", "") : v.substring(0, v.length() - 2);
+        return Long.parseLong(number.trim()) * unit;
+    }
+}
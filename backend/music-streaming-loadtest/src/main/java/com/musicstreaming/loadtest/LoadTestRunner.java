@@ -0,0 +1,92 @@
+package com.musicstreaming.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end load test against a throwaway environment.
+ *
+ * <ol>
+ *   <li>Starts an embedded Postgres (real binaries, no container) in the work dir.</li>
+ *   <li>Starts the backend once so Hibernate creates the schema, then stops it.</li>
+ *   <li>Seeds listeners, songs and generated audio files.</li>
+ *   <li>Restarts the backend (search index and caches load the seeded catalog).</li>
+ *   <li>Runs the listener traffic and prints per-endpoint throughput, latency and errors.</li>
+ * </ol>
+ *
+ * <pre>
+ * java -jar loadtest.jar --songs 2000 --users 200 --duration 2m --app-jar path/to/app-exec.jar
+ * </pre>
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        Path workDir = Files.createDirectories(config.workDir()).toAbsolutePath();
+        if (!Files.isRegularFile(config.appJar())) {
+            throw new IllegalArgumentException("Backend jar not found: " + config.appJar().toAbsolutePath()
+                    + " (build it first or pass --app-jar)");
+        }
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder()
+                .setDataDirectory(workDir.resolve("pgdata"))
+                .setCleanDataDirectory(true)
+                .start()) {
+
+            String jdbcUrl = postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true";
+
+            try (AppProcess app = new AppProcess(config.appJar(), workDir, jdbcUrl)) {
+                log("Creating schema");
+                app.start();
+                app.stop();
+
+                log("Seeding " + config.songs() + " songs and " + config.users() + " listeners");
+                CatalogSeeder seeder = new CatalogSeeder(postgres.getPostgresDatabase(), workDir, config.seed());
+                List<String> emails = seeder.seedUsers(config.users());
+                seeder.seedSongs(config.songs(), config.audioSize());
+
+                log("Starting backend on " + app.baseUri());
+                app.start();
+
+                ListenerTraffic traffic = new ListenerTraffic(config, app.baseUri());
+                List<String> songIds = traffic.loadCatalog(emails.get(0));
+                log("Catalog has " + songIds.size() + " songs; warming up for " + config.warmup().toSeconds()
+                        + "s, measuring for " + config.duration().toSeconds() + "s");
+
+                traffic.run(emails, songIds);
+                System.out.println();
+                System.out.println(report(traffic.stats(), config.duration().toMillis() / 1000.0));
+            }
+        }
+    }
+
+    static String report(Map<String, EndpointStats> stats, double seconds) {
+        StringBuilder report = new StringBuilder(String.format("%-38s %9s %8s %7s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Err %", "Req/s", "p50 ms", "p99 ms", "Max ms", "MB/s"));
+
+        for (EndpointStats s : stats.values()) {
+            long requests = s.requests();
+            report.append(String.format("%-38s %9d %8d %6.2f%% %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    s.name(),
+                    requests,
+                    s.errors(),
+                    requests == 0 ? 0 : 100.0 * s.errors() / requests,
+                    requests / seconds,
+                    s.percentileMillis(50),
+                    s.percentileMillis(99),
+                    s.maxMillis(),
+                    s.bytes() / seconds / (1024 * 1024)));
+        }
+        return report.toString();
+    }
+
+    private static void log(String message) {
+        System.out.println("[loadtest] " + message);
+    }
+}
@@ -0,0 +1,33 @@
+package com.musicstreaming.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoadTestConfigTest {
+
+    @Test
+    void defaultsAndOverrides() {
+        LoadTestConfig config = LoadTestConfig.parse(new String[]{
+                "--songs", "2000", "--duration", "2m", "--range-size", "64KB", "--think-time", "50ms"
+        });
+
+        assertThat(config.songs()).isEqualTo(2000);
+        assertThat(config.users()).isEqualTo(50);
+        assertThat(config.duration()).isEqualTo(Duration.ofMinutes(2));
+        assertThat(config.rangeSize()).isEqualTo(64 * 1024);
+        assertThat(config.audioSize()).isEqualTo(1024 * 1024);
+        assertThat(config.thinkTime()).isEqualTo(Duration.ofMillis(50));
+    }
+
+    @Test
+    void rejectsUnknownOrInvalidOptions() {
+        assertThatThrownBy(() -> LoadTestConfig.parse(new String[]{"--sons", "10"}))
+                .hasMessageContaining("sons");
+        assertThatThrownBy(() -> LoadTestConfig.parse(new String[]{"--users", "0"}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
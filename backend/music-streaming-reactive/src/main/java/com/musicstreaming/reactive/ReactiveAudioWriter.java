@@ -0,0 +1,130 @@
+package com.musicstreaming.reactive;
+
+import com.musicstreaming.app.service.FileStorageService;
+import com.musicstreaming.app.service.HttpConditionals;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Reactive counterpart of {@code AudioRangeWriter}: the body is a
+ * {@code Flux<DataBuffer>} read from an {@link AsynchronousFileChannel}, so a
+ * slow listener costs a few pooled buffers rather than a blocked thread.
+ *
+ * Same conditional semantics (strong ETag, 304, If-Range, 416). A single
+ * range is answered with 206; several ranges get the whole file.
+ */
+public class ReactiveAudioWriter {
+
+    private final ExecutorService ioExecutor;
+    private final int bufferSize;
+
+    public ReactiveAudioWriter(ExecutorService ioExecutor, int bufferSize) {
+        this.ioExecutor = ioExecutor;
+        this.bufferSize = bufferSize;
+    }
+
+    public Mono<Void> write(Path file, MediaType contentType, CacheControl cacheControl, ServerWebExchange exchange) {
+        // stat() is a blocking syscall → keep it off the event loop
+        return Mono.fromCallable(() -> Files.readAttributes(file, BasicFileAttributes.class))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(attrs -> write(file, attrs.size(), attrs.lastModifiedTime().toMillis(),
+                        contentType, cacheControl, exchange));
+    }
+
+    private Mono<Void> write(
+            Path file,
+            long length,
+            long lastModified,
+            MediaType contentType,
+            CacheControl cacheControl,
+            ServerWebExchange exchange
+    ) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        String etag = FileStorageService.etag(file.getFileName().toString(), length, lastModified);
+
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setCacheControl(cacheControl);
+
+        // If-None-Match / If-Modified-Since → 304 (If-Match failures → 412)
+        if (exchange.checkNotModified(etag, Instant.ofEpochMilli(lastModified))) {
+            return response.setComplete();
+        }
+
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        HttpRange range = HttpConditionals.ifRangeMatches(ifRange, etag, lastModified)
+                ? singleRange(requestHeaders)
+                : null;
+
+        headers.setContentType(contentType);
+
+        // No (usable) Range header → full file
+        if (range == null) {
+            response.setStatusCode(HttpStatus.OK);
+            headers.setContentLength(length);
+            return response.writeWith(read(file, 0, length, response));
+        }
+
+        long start = range.getRangeStart(length);
+        if (start >= length) {
+            response.setStatusCode(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            headers.setContentLength(0);
+            return response.setComplete();
+        }
+        long end = range.getRangeEnd(length);
+
+        response.setStatusCode(HttpStatus.PARTIAL_CONTENT);
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        headers.setContentLength(end - start + 1);
+        return response.writeWith(read(file, start, end - start + 1, response));
+    }
+
+    private Flux<DataBuffer> read(Path file, long position, long count, ServerHttpResponse response) {
+        Flux<DataBuffer> buffers = DataBufferUtils.readAsynchronousFileChannel(
+                () -> AsynchronousFileChannel.open(file, Set.of(StandardOpenOption.READ), ioExecutor),
+                position,
+                response.bufferFactory(),
+                bufferSize
+        );
+        return DataBufferUtils.takeUntilByteCount(buffers, count);
+    }
+
+    /**
+     * The one range to serve, or {@code null} for the whole file: no header,
+     * a malformed one, or more than one range.
+     */
+    static HttpRange singleRange(HttpHeaders requestHeaders) {
+        if (requestHeaders.getFirst(HttpHeaders.RANGE) == null) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = requestHeaders.getRange();
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
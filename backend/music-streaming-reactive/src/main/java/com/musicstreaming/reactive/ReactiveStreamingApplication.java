@@ -0,0 +1,38 @@
+package com.musicstreaming.reactive;
+
+import com.musicstreaming.app.model.Song;
+import com.musicstreaming.app.repository.SongRepository;
+import com.musicstreaming.app.security.jwt.JwtConfig;
+import com.musicstreaming.app.security.jwt.JwtService;
+import com.musicstreaming.app.service.StreamingAccessService;
+import com.musicstreaming.app.streaming.SongCacheProperties;
+import com.musicstreaming.app.streaming.SongMetadataCache;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Streaming-only node on WebFlux / Netty. It shares the catalog database,
+ * the JWT secret and the access rules with the main application, and serves
+ * {@code /api/stream/songs/{id}} without holding a thread per listener.
+ */
+@SpringBootApplication(exclude = ReactiveUserDetailsServiceAutoConfiguration.class)
+@Import({
+        JwtConfig.class,
+        JwtService.class,
+        StreamingAccessService.class,
+        SongMetadataCache.class
+})
+@EnableConfigurationProperties(SongCacheProperties.class)
+@EnableJpaRepositories(basePackageClasses = SongRepository.class)
+@EntityScan(basePackageClasses = Song.class)
+public class ReactiveStreamingApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveStreamingApplication.class, args);
+    }
+}
@@ -0,0 +1,30 @@
+package com.musicstreaming.reactive;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+@EnableConfigurationProperties(ReactiveStreamingProperties.class)
+public class ReactiveStreamingConfig {
+
+    /**
+     * Completion handlers of every {@link java.nio.channels.AsynchronousFileChannel}
+     * run here instead of on a per-channel default pool.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService audioIoExecutor(ReactiveStreamingProperties props) {
+        return Executors.newFixedThreadPool(
+                props.ioThreads(),
+                Thread.ofPlatform().name("audio-io-", 0).daemon().factory()
+        );
+    }
+
+    @Bean
+    public ReactiveAudioWriter reactiveAudioWriter(ReactiveStreamingProperties props, ExecutorService audioIoExecutor) {
+        return new ReactiveAudioWriter(audioIoExecutor, (int) props.bufferSize().toBytes());
+    }
+}
@@ -0,0 +1,100 @@
+package com.musicstreaming.reactive;
+
+import com.musicstreaming.app.security.jwt.JwtPrincipal;
+import com.musicstreaming.app.security.jwt.JwtService;
+import com.musicstreaming.app.service.StreamingAccessService;
+import com.musicstreaming.app.streaming.SongMetadata;
+import com.musicstreaming.app.streaming.SongMetadataCache;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/stream")
+public class ReactiveStreamingController {
+
+    // Same policy as the servlet endpoint: private copies only
+    private static final CacheControl AUTHORIZED_MEDIA =
+            CacheControl.maxAge(Duration.ofDays(1)).cachePrivate();
+
+    private final JwtService jwtService;
+    private final SongMetadataCache songMetadataCache;
+    private final StreamingAccessService streamingAccessService;
+    private final ReactiveAudioWriter audioWriter;
+
+    public ReactiveStreamingController(
+            JwtService jwtService,
+            SongMetadataCache songMetadataCache,
+            StreamingAccessService streamingAccessService,
+            ReactiveAudioWriter audioWriter
+    ) {
+        this.jwtService = jwtService;
+        this.songMetadataCache = songMetadataCache;
+        this.streamingAccessService = streamingAccessService;
+        this.audioWriter = audioWriter;
+    }
+
+    @GetMapping("/songs/{id}")
+    public Mono<Void> streamSong(@PathVariable UUID id, ServerWebExchange exchange) {
+
+        // 1️⃣ Authenticate (cached JWT verification, no user lookup)
+        JwtPrincipal principal = principal(exchange);
+
+        // 2️⃣ Fetch song – a cache miss is a JPA query, so never on the event loop
+        return Mono.fromCallable(() -> songMetadataCache.get(id))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorMap(EntityNotFoundException.class,
+                        ex -> new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage()))
+                .flatMap(song -> {
+
+                    // 3️⃣ Authorization check (IMPORTANT)
+                    if (!streamingAccessService.userHasAccess(song, principal.role())) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "No access to this song"));
+                    }
+
+                    // 4️⃣ Stream full file / single range (or 416/304) as a Flux<DataBuffer>
+                    return stream(song, exchange);
+                });
+    }
+
+    // ================= HELPER =================
+
+    private Mono<Void> stream(SongMetadata song, ServerWebExchange exchange) {
+        return audioWriter.write(
+                Paths.get(song.audioPath()),
+                MediaType.APPLICATION_OCTET_STREAM,
+                AUTHORIZED_MEDIA,
+                exchange
+        );
+    }
+
+    private JwtPrincipal principal(ServerWebExchange exchange) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        // Streaming is never public → missing token is 401 here
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        }
+
+        try {
+            return jwtService.authenticate(authHeader.substring(7));
+        } catch (Exception ex) {
+            // Invalid / expired token
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.musicstreaming.reactive;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "reactive-streaming")
+public record ReactiveStreamingProperties(
+        int ioThreads,
+        DataSize bufferSize
+) {}
@@ -0,0 +1,127 @@
+package com.musicstreaming.reactive;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveAudioWriterTest {
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private byte[] content;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ReactiveAudioWriter writer = new ReactiveAudioWriter(executor, 128);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        content = new byte[1000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        file = Files.write(dir.resolve("track.mp3"), content);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private MockServerHttpResponse send(MockServerHttpRequest request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        writer.write(file, MediaType.APPLICATION_OCTET_STREAM, CacheControl.noCache(), exchange)
+                .block(Duration.ofSeconds(5));
+        return exchange.getResponse();
+    }
+
+    private MockServerHttpResponse get(String range) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/stream/songs/x");
+        if (range != null) {
+            request.header(HttpHeaders.RANGE, range);
+        }
+        return send(request.build());
+    }
+
+    private static byte[] body(MockServerHttpResponse response) {
+        return DataBufferUtils.join(response.getBody())
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .defaultIfEmpty(new byte[0])
+                .block(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void noRangeSendsWholeFileInChunks() {
+        MockServerHttpResponse response = get(null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(1000);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(body(response)).isEqualTo(content);
+    }
+
+    @Test
+    void singleRangeIsPartialContent() {
+        MockServerHttpResponse response = get("bytes=100-349");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 100-349/1000");
+        assertThat(body(response)).isEqualTo(Arrays.copyOfRange(content, 100, 350));
+
+        MockServerHttpResponse suffix = get("bytes=-5");
+        assertThat(suffix.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 995-999/1000");
+        assertThat(body(suffix)).isEqualTo(Arrays.copyOfRange(content, 995, 1000));
+    }
+
+    @Test
+    void unusableRangesFallBackOrAre416() {
+        assertThat(get("bytes=abc").getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(get("bytes=0-1,-2").getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        MockServerHttpResponse response = get("bytes=1000-");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */1000");
+    }
+
+    @Test
+    void conditionalRequestsUseTheEtag() {
+        String etag = get(null).getHeaders().getETag();
+        assertThat(etag).isNotBlank();
+
+        MockServerHttpResponse notModified = send(MockServerHttpRequest.get("/api/stream/songs/x")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .build());
+        assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        MockServerHttpResponse stale = send(MockServerHttpRequest.get("/api/stream/songs/x")
+                .header(HttpHeaders.RANGE, "bytes=10-19")
+                .header(HttpHeaders.IF_RANGE, "\"outdated\"")
+                .build());
+        assertThat(stale.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(body(stale)).isEqualTo(content);
+    }
+}
@@ -1,32 +1,44 @@
-import { useEffect, useState } from "react";
+import { useCallback, useEffect, useState } from "react";
 
 import Sidebar from "./components/Sidebar";
 import PlayerBar from "./components/PlayerBar";
 import Home from "./pages/Home";
 import type { Song } from "./types/Song";
-import { getSongs } from "./services/songService";
+import { getSongPage } from "./services/songService";
 
 function App() {
   const [songs, setSongs] = useState<Song[]>([]);
   const [currentSong, setCurrentSong] = useState<Song | null>(null);
-
-  useEffect(() => {
-    getSongs().then(setSongs);
-  }, []);
-  
-  useEffect(() => {
-    getSongs().then(data => {
-      console.log("SONGS FROM API:", data);
-      setSongs(data);
-    });
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [loading, setLoading] = useState(false);
+
+  // The API pages the catalog; each call appends the page after the cursor
+  const loadPage = useCallback(async (cursor?: string) => {
+    setLoading(true);
+    try {
+      const page = await getSongPage(cursor);
+      setSongs(prev => (cursor ? [...prev, ...page.items] : page.items));
+      setNextCursor(page.nextCursor);
+    } finally {
+      setLoading(false);
+    }
   }, []);
 
+  useEffect(() => {
+    loadPage();
+  }, [loadPage]);
 
   return (
     <div className="app">
       <Sidebar />
 
-      <Home songs={songs} onSelect={setCurrentSong} />
+      <Home
+        songs={songs}
+        onSelect={setCurrentSong}
+        hasMore={nextCursor !== null}
+        loading={loading}
+        onLoadMore={() => nextCursor && loadPage(nextCursor)}
+      />
 
       <PlayerBar song={currentSong} />
     </div>
@@ -1,11 +1,20 @@
 import type { Song } from "../types/Song";
 
+const MEDIA_URL = "http://localhost:8081/media";
+
+// Resized variant instead of the original upload
+const coverUrl = (coverPath: string, size: number) =>
+  `${MEDIA_URL}/covers/${coverPath.split("/").pop()}?size=${size}`;
+
 interface HomeProps {
   songs: Song[];
   onSelect: (song: Song) => void;
+  hasMore: boolean;
+  loading: boolean;
+  onLoadMore: () => void;
 }
 
-const Home: React.FC<HomeProps> = ({ songs, onSelect }) => {
+const Home: React.FC<HomeProps> = ({ songs, onSelect, hasMore, loading, onLoadMore }) => {
   return (
     <div className="content">
       <h1>Library</h1>
@@ -20,7 +29,10 @@ const Home: React.FC<HomeProps> = ({ songs, onSelect }) => {
             {/* 🔥 COVER IMAGE */}
             {song.coverPath && (
               <img
-                src={`http://localhost:8081/media/audio/${song.audioPath.split("/").pop()}`}
+                src={coverUrl(song.coverPath, 256)}
+                srcSet={`${coverUrl(song.coverPath, 128)} 128w, ${coverUrl(song.coverPath, 256)} 256w, ${coverUrl(song.coverPath, 512)} 512w`}
+                sizes="(max-width: 600px) 50vw, 200px"
+                loading="lazy"
                 alt={song.title}
                 style={{
                   width: "100%",
@@ -36,6 +48,12 @@ const Home: React.FC<HomeProps> = ({ songs, onSelect }) => {
 
         ))}
       </div>
+
+      {hasMore && (
+        <button className="load-more" onClick={onLoadMore} disabled={loading}>
+          {loading ? "Loading..." : "Load more"}
+        </button>
+      )}
     </div>
   );
 };
@@ -3,7 +3,14 @@ import type { Song } from "../types/Song";
 
 const API_URL = "http://localhost:8081/api/songs";
 
-export const getSongs = async (): Promise<Song[]> => {
-  const response = await axios.get(API_URL);
+export interface SongPage {
+  items: Song[];
+  nextCursor: string | null;
+}
+
+export const getSongPage = async (cursor?: string, limit = 50): Promise<SongPage> => {
+  const response = await axios.get<SongPage>(API_URL, {
+    params: { cursor, limit },
+  });
   return response.data;
 };
@@ -8,4 +8,5 @@ export interface Song {
   durationSec: number;
   audioPath: string;
   coverPath?: string;
+  createdAt: string;
 } 